@@ -0,0 +1,81 @@
+package org.example.ecommerce.benchmark;
+
+import org.example.ecommerce.EcommerceApplication;
+import org.example.ecommerce.dto.CreateProductRequest;
+import org.example.ecommerce.entity.User;
+import org.example.ecommerce.entity.UserRole;
+import org.example.ecommerce.repository.UserRepository;
+import org.example.ecommerce.service.CatalogFormat;
+import org.example.ecommerce.service.ProductImportService;
+import org.example.ecommerce.service.ProductService;
+import org.springframework.boot.WebApplicationType;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Boots the application without a web server on a private in-memory H2
+ * database, for benchmarks that go through the real services and repositories.
+ */
+final class BenchmarkApplication {
+    private BenchmarkApplication() {
+    }
+
+    /**
+     * @param properties extra {@code --name=value} arguments, e.g. to switch a mode on
+     */
+    static ConfigurableApplicationContext start(String name, String... properties) {
+        List<String> args = new ArrayList<>(List.of(
+                "--spring.datasource.url=jdbc:h2:mem:" + name + ";DB_CLOSE_DELAY=-1;MODE=PostgreSQL",
+                "--spring.datasource.username=sa",
+                "--spring.datasource.password=",
+                "--spring.datasource.driver-class-name=org.h2.Driver",
+                "--spring.jpa.properties.hibernate.dialect=org.hibernate.dialect.H2Dialect",
+                "--logging.level.root=WARN"));
+        args.addAll(List.of(properties));
+        return new SpringApplicationBuilder(EcommerceApplication.class)
+                .web(WebApplicationType.NONE)
+                // Passed as arguments so they win over application.yml
+                .run(args.toArray(String[]::new));
+    }
+
+    // Products with stock that no benchmark run can exhaust
+    static List<Long> seedProducts(ConfigurableApplicationContext context, int count) {
+        ProductService productService = context.getBean(ProductService.class);
+        List<Long> ids = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            ids.add(productService.createProduct(new CreateProductRequest(
+                    "Product " + i, "Benchmark product " + i,
+                    BigDecimal.valueOf(100 + i, 2), Integer.MAX_VALUE,
+                    "category-" + i % 10, null)).getId());
+        }
+        return ids;
+    }
+
+    // Large catalogs go through the bulk import rather than one service call per product
+    static void importProducts(ConfigurableApplicationContext context, int count) throws IOException {
+        StringBuilder csv = new StringBuilder(CatalogFormat.CSV_COLUMNS).append('\n');
+        for (int i = 0; i < count; i++) {
+            csv.append("Product ").append(i).append(",Benchmark product ").append(i).append(',')
+                    .append(1 + i % 500).append(",1000,category-").append(i % 10).append(",\n");
+        }
+        context.getBean(ProductImportService.class).importProducts(CatalogFormat.CSV,
+                new ByteArrayInputStream(csv.toString().getBytes(StandardCharsets.UTF_8)));
+    }
+
+    static Long seedUser(ConfigurableApplicationContext context) {
+        return context.getBean(UserRepository.class).save(User.builder()
+                .email("benchmark@example.org")
+                .password("password")
+                .firstName("Bench")
+                .lastName("Mark")
+                .role(UserRole.CUSTOMER)
+                .build()).getId();
+    }
+}
@@ -0,0 +1,66 @@
+package org.example.ecommerce.benchmark;
+
+import org.example.ecommerce.dto.CreateOrderRequest;
+import org.example.ecommerce.dto.OrderDTO;
+import org.example.ecommerce.dto.OrderItemRequest;
+import org.example.ecommerce.service.OrderService;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Orders placed concurrently on one hot product, with stock reserved by a
+ * conditional update of the product row ({@code direct}) or by the in-memory
+ * ledger with write-behind ({@code in_memory}). The row lock is what the
+ * direct path queues on, so a single product is the worst case for it.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 5, time = 10)
+@Measurement(iterations = 5, time = 5)
+@Threads(8)
+@Fork(1)
+public class InventoryBenchmark {
+    @Param({"direct", "in_memory"})
+    private String mode;
+
+    private ConfigurableApplicationContext context;
+    private OrderService orderService;
+    private CreateOrderRequest request;
+
+    @Setup
+    public void setUp() {
+        context = BenchmarkApplication.start("inventory-" + mode,
+                "--app.inventory.in-memory.enabled=" + mode.equals("in_memory"));
+        orderService = context.getBean(OrderService.class);
+
+        Long productId = BenchmarkApplication.seedProducts(context, 1).get(0);
+        request = new CreateOrderRequest(BenchmarkApplication.seedUser(context),
+                List.of(new OrderItemRequest(productId, 1)), "1 Main Street");
+    }
+
+    @TearDown
+    public void tearDown() {
+        context.close();
+    }
+
+    @Benchmark
+    public OrderDTO createOrder() {
+        return orderService.createOrder(request);
+    }
+}
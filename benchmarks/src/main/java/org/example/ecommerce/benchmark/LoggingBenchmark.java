@@ -0,0 +1,126 @@
+package org.example.ecommerce.benchmark;
+
+import ch.qos.logback.classic.AsyncAppender;
+import ch.qos.logback.classic.Logger;
+import ch.qos.logback.classic.LoggerContext;
+import ch.qos.logback.classic.spi.ILoggingEvent;
+import ch.qos.logback.core.Appender;
+import org.example.ecommerce.controller.ProductController;
+import org.example.ecommerce.dto.ProductDTO;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+import org.slf4j.LoggerFactory;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.http.ResponseEntity;
+
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.PrintStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.stream.Stream;
+
+/**
+ * Throughput of {@link ProductController#getProduct} (a cache hit) with the
+ * appenders of the shipped {@code logback-spring.xml}, from several threads so
+ * that contention on the appender shows:
+ * <ul>
+ *   <li>{@code off}: controller INFO disabled, the baseline</li>
+ *   <li>{@code sync}: the shipped console appender called directly by the request thread</li>
+ *   <li>{@code async}: the shipped configuration as is, console behind the bounded queue</li>
+ *   <li>{@code sampled}: the same with {@code app.logging.request-sample-rate=0.01}</li>
+ * </ul>
+ * The console output is redirected to a temporary file so it does not mix with
+ * the JMH report. At the end of a run the benchmark prints how many request
+ * lines were logged, how many reached the file and how many were dropped.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 5, time = 5)
+@Measurement(iterations = 5, time = 2)
+@Threads(4)
+@Fork(1)
+public class LoggingBenchmark {
+    private static final double SAMPLE_RATE = 0.01;
+    private static final String REQUEST_LINE = "GET /api/v1/products/";
+
+    @Param({"off", "sync", "async", "sampled"})
+    public String logging;
+
+    private final LongAdder requests = new LongAdder();
+    private ConfigurableApplicationContext context;
+    private ProductController productController;
+    private Long productId;
+    private AsyncAppender asyncAppender;
+    private Path logFile;
+    private PrintStream console;
+    private PrintStream stdout;
+
+    @Setup
+    public void setUp() throws IOException {
+        context = "off".equals(logging)
+                ? BenchmarkApplication.start("logging")
+                : BenchmarkApplication.start("logging", "--logging.level.org.example.ecommerce.controller=INFO",
+                        "--app.logging.request-sample-rate=" + ("sampled".equals(logging) ? SAMPLE_RATE : 1.0));
+        productController = context.getBean(ProductController.class);
+        productId = BenchmarkApplication.seedProducts(context, 1).get(0);
+        productController.getProduct(productId);
+
+        Logger root = ((LoggerContext) LoggerFactory.getILoggerFactory()).getLogger(Logger.ROOT_LOGGER_NAME);
+        asyncAppender = (AsyncAppender) root.getAppender("ASYNC");
+        if ("sync".equals(logging)) {
+            Appender<ILoggingEvent> consoleAppender = asyncAppender.getAppender("CONSOLE");
+            root.detachAppender(asyncAppender);
+            root.addAppender(consoleAppender);
+        }
+
+        // The console appender writes to whatever System.out is at the time
+        logFile = Files.createTempFile("logging-benchmark", ".log");
+        stdout = System.out;
+        console = new PrintStream(new FileOutputStream(logFile.toFile()), false, StandardCharsets.UTF_8);
+        System.setOut(console);
+    }
+
+    @TearDown
+    public void tearDown() throws IOException {
+        // Stopping the async appender writes out what is still queued
+        asyncAppender.stop();
+        System.setOut(stdout);
+        console.close();
+
+        long logged = requests.sum();
+        long written;
+        try (Stream<String> lines = Files.lines(logFile)) {
+            written = lines.filter(line -> line.contains(REQUEST_LINE)).count();
+        }
+        if (!"off".equals(logging)) {
+            long expected = "sampled".equals(logging) ? Math.round(logged * SAMPLE_RATE) : logged;
+            System.out.printf("%nlogging=%s: %d requests, %d lines expected%s, %d written, %d dropped (%.1f%%)%n",
+                    logging, logged, expected, "sampled".equals(logging) ? " after sampling" : "", written,
+                    Math.max(0, expected - written), 100.0 * Math.max(0, expected - written) / Math.max(1, expected));
+        }
+        context.close();
+        Files.deleteIfExists(logFile);
+    }
+
+    @Benchmark
+    public ResponseEntity<ProductDTO> getProduct() {
+        requests.increment();
+        return productController.getProduct(productId);
+    }
+}
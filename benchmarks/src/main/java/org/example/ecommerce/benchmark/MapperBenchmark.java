@@ -0,0 +1,138 @@
+package org.example.ecommerce.benchmark;
+
+import org.example.ecommerce.dto.OrderDTO;
+import org.example.ecommerce.dto.ProductDTO;
+import org.example.ecommerce.entity.Order;
+import org.example.ecommerce.entity.OrderItem;
+import org.example.ecommerce.entity.OrderStatus;
+import org.example.ecommerce.entity.Product;
+import org.example.ecommerce.entity.User;
+import org.example.ecommerce.mapper.OrderMapper;
+import org.example.ecommerce.mapper.ProductMapper;
+import org.modelmapper.ModelMapper;
+import org.modelmapper.convention.MatchingStrategies;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * ModelMapper (configured as the application used to) against the hand-written
+ * mappers, for one product, a 100-product page and a 10-line order.
+ * Run with {@code -prof gc} to compare allocation rates as well.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class MapperBenchmark {
+    private ModelMapper modelMapper;
+    private ProductMapper productMapper;
+    private OrderMapper orderMapper;
+
+    private Product product;
+    private List<Product> page;
+    private Order order;
+
+    @Setup
+    public void setUp() {
+        modelMapper = new ModelMapper();
+        modelMapper.getConfiguration()
+                .setMatchingStrategy(MatchingStrategies.STRICT)
+                .setSkipNullEnabled(true);
+        modelMapper.createTypeMap(Product.class, ProductDTO.class)
+                .addMapping(Product::getId, ProductDTO::setId)
+                .addMapping(Product::getName, ProductDTO::setName);
+
+        productMapper = new ProductMapper();
+        orderMapper = new OrderMapper();
+
+        product = product(1L);
+        page = new ArrayList<>();
+        for (long id = 1; id <= 100; id++) {
+            page.add(product(id));
+        }
+
+        order = Order.builder()
+                .id(1L)
+                .user(User.builder().id(7L).build())
+                .status(OrderStatus.PENDING)
+                .shippingAddress("1 Main Street")
+                .totalAmount(new BigDecimal("199.90"))
+                .items(new ArrayList<>())
+                .build();
+        for (int i = 0; i < 10; i++) {
+            order.getItems().add(OrderItem.builder()
+                    .order(order)
+                    .product(page.get(i))
+                    .quantity(2)
+                    .price(page.get(i).getPrice())
+                    .build());
+        }
+    }
+
+    @Benchmark
+    public ProductDTO productModelMapper() {
+        return modelMapper.map(product, ProductDTO.class);
+    }
+
+    @Benchmark
+    public ProductDTO productMapper() {
+        return productMapper.toDto(product);
+    }
+
+    @Benchmark
+    public List<ProductDTO> pageModelMapper() {
+        List<ProductDTO> content = new ArrayList<>(page.size());
+        for (Product p : page) {
+            content.add(modelMapper.map(p, ProductDTO.class));
+        }
+        return content;
+    }
+
+    @Benchmark
+    public List<ProductDTO> pageMapper() {
+        List<ProductDTO> content = new ArrayList<>(page.size());
+        for (Product p : page) {
+            content.add(productMapper.toDto(p));
+        }
+        return content;
+    }
+
+    @Benchmark
+    public OrderDTO orderModelMapper() {
+        return modelMapper.map(order, OrderDTO.class);
+    }
+
+    @Benchmark
+    public OrderDTO orderMapper() {
+        return orderMapper.toDto(order);
+    }
+
+    private static Product product(long id) {
+        return Product.builder()
+                .id(id)
+                .name("Product " + id)
+                .description("Description of product " + id)
+                .price(BigDecimal.valueOf(id * 100 + 99, 2))
+                .stock(100)
+                .category("category-" + (id % 10))
+                .imageUrl("https://cdn.example.org/products/" + id + ".png")
+                .active(true)
+                .version(1L)
+                .build();
+    }
+}
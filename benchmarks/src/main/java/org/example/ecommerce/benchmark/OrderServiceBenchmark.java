@@ -0,0 +1,73 @@
+package org.example.ecommerce.benchmark;
+
+import org.example.ecommerce.dto.CreateOrderRequest;
+import org.example.ecommerce.dto.OrderDTO;
+import org.example.ecommerce.dto.OrderItemRequest;
+import org.example.ecommerce.service.OrderService;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * {@link OrderService#createOrder} end to end on H2 (product lookup, stock
+ * reservation, line totals, inserts and mapping) and {@link OrderService#getOrder}
+ * for an order of the same size.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 10)
+@Measurement(iterations = 5, time = 5)
+@Fork(1)
+public class OrderServiceBenchmark {
+    @Param({"1", "10"})
+    private int lines;
+
+    private ConfigurableApplicationContext context;
+    private OrderService orderService;
+    private CreateOrderRequest request;
+    private Long orderId;
+
+    @Setup
+    public void setUp() {
+        context = BenchmarkApplication.start("orders");
+        orderService = context.getBean(OrderService.class);
+
+        List<Long> productIds = BenchmarkApplication.seedProducts(context, lines);
+        List<OrderItemRequest> items = new ArrayList<>(lines);
+        for (Long productId : productIds) {
+            items.add(new OrderItemRequest(productId, 1));
+        }
+        request = new CreateOrderRequest(BenchmarkApplication.seedUser(context), items, "1 Main Street");
+        orderId = orderService.createOrder(request).getId();
+    }
+
+    @TearDown
+    public void tearDown() {
+        context.close();
+    }
+
+    @Benchmark
+    public OrderDTO createOrder() {
+        return orderService.createOrder(request);
+    }
+
+    @Benchmark
+    public OrderDTO getOrder() {
+        return orderService.getOrder(orderId);
+    }
+}
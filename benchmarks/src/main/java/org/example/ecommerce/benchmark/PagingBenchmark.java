@@ -0,0 +1,81 @@
+package org.example.ecommerce.benchmark;
+
+import org.example.ecommerce.cache.ProductCache;
+import org.example.ecommerce.dto.CursorPage;
+import org.example.ecommerce.dto.PagedResponse;
+import org.example.ecommerce.dto.ProductDTO;
+import org.example.ecommerce.service.ProductService;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.io.IOException;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Latency of reading page {@code page} of the product listing by offset
+ * ({@link ProductService#getAllProducts}, page cache cleared so every call
+ * queries) and by cursor ({@link ProductService#scrollProducts}, resumed from
+ * the cursor that ends the previous page). Offset paging skips
+ * {@code page * 20} rows and counts the catalog on every call; the keyset seek
+ * reads only the rows it returns.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 10, time = 5)
+@Measurement(iterations = 5, time = 3)
+@Fork(1)
+public class PagingBenchmark {
+    private static final int PAGE_SIZE = 20;
+    private static final int PRODUCTS = 25_000;
+
+    @Param({"1", "1000"})
+    public int page;
+
+    private ConfigurableApplicationContext context;
+    private ProductService productService;
+    private Cache pageCache;
+    private String cursor;
+
+    @Setup
+    public void setUp() throws IOException {
+        context = BenchmarkApplication.start("paging");
+        productService = context.getBean(ProductService.class);
+        pageCache = context.getBean(CacheManager.class).getCache(ProductCache.PRODUCT_PAGES);
+        BenchmarkApplication.importProducts(context, PRODUCTS);
+
+        // Walk to the cursor that ends the page before the one measured
+        for (int i = 0; i < page; i++) {
+            cursor = productService.scrollProducts(cursor, PAGE_SIZE, "id", "asc").getNextCursor();
+        }
+    }
+
+    @TearDown
+    public void tearDown() {
+        context.close();
+    }
+
+    @Benchmark
+    public PagedResponse<ProductDTO> offset() {
+        pageCache.clear();
+        return productService.getAllProducts(page, PAGE_SIZE, "id", "asc");
+    }
+
+    @Benchmark
+    public CursorPage<ProductDTO> keyset() {
+        return productService.scrollProducts(cursor, PAGE_SIZE, "id", "asc");
+    }
+}
@@ -0,0 +1,174 @@
+package org.example.ecommerce.benchmark;
+
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.EntityManagerFactory;
+import jakarta.persistence.TypedQuery;
+import org.example.ecommerce.dto.ProductSearchCriteria;
+import org.example.ecommerce.entity.Product;
+import org.example.ecommerce.repository.ProductRepository;
+import org.example.ecommerce.repository.ProductSpecifications;
+import org.hibernate.resource.jdbc.spi.StatementInspector;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Sort;
+import org.springframework.orm.jpa.SharedEntityManagerCreator;
+
+import javax.sql.DataSource;
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * One 20-product page of a filter-only product search per filter combination.
+ * {@code specification} is the query {@link ProductSpecifications#matching}
+ * builds today, with only the filters present; {@code catchAll} is the single
+ * "(:param IS NULL OR ...)" JPQL it replaced, which every combination shared.
+ * Both run the page and the count query, like a {@link Page} does.
+ * <p>
+ * The catalog has 25,000 products by default on in-memory H2; pass
+ * {@code -p products=1000000} for a full-size run. Setup prints the SQL and
+ * H2's {@code EXPLAIN} of every statement both variants send for the
+ * combination, so plan and latency can be read side by side.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 10, time = 5)
+@Measurement(iterations = 5, time = 3)
+@Fork(1)
+public class ProductSearchBenchmark {
+    private static final int PAGE_SIZE = 20;
+    private static final String CATCH_ALL_WHERE = " FROM Product p WHERE "
+            + "(:name IS NULL OR LOWER(p.name) LIKE LOWER(CONCAT('%', :name, '%'))) AND "
+            + "(:category IS NULL OR p.category = :category) AND "
+            + "(:minPrice IS NULL OR p.price >= :minPrice) AND "
+            + "(:maxPrice IS NULL OR p.price <= :maxPrice) AND "
+            + "(:active IS NULL OR p.active = :active)";
+
+    @Param({"category", "price", "category+price", "active+category+price"})
+    public String filters;
+
+    @Param({"25000"})
+    public int products;
+
+    private ConfigurableApplicationContext context;
+    private ProductRepository productRepository;
+    private EntityManager entityManager;
+    private ProductSearchCriteria criteria;
+    private Pageable pageable;
+
+    @Setup
+    public void setUp() throws IOException, SQLException {
+        context = BenchmarkApplication.start("search",
+                "--spring.jpa.properties.hibernate.session_factory.statement_inspector="
+                        + CapturingInspector.class.getName());
+        productRepository = context.getBean(ProductRepository.class);
+        entityManager = SharedEntityManagerCreator.createSharedEntityManager(
+                context.getBean(EntityManagerFactory.class));
+        BenchmarkApplication.importProducts(context, products);
+
+        criteria = new ProductSearchCriteria();
+        List<String> set = List.of(filters.split("\\+"));
+        if (set.contains("active")) {
+            criteria.setActive(true);
+        }
+        if (set.contains("category")) {
+            criteria.setCategory("category-3");
+        }
+        if (set.contains("price")) {
+            criteria.setMinPrice(BigDecimal.valueOf(100));
+            criteria.setMaxPrice(BigDecimal.valueOf(120));
+        }
+        pageable = PageRequest.of(0, PAGE_SIZE, Sort.by("id"));
+
+        explain("specification", this::specification);
+        explain("catchAll", this::catchAll);
+    }
+
+    @TearDown
+    public void tearDown() {
+        context.close();
+    }
+
+    @Benchmark
+    public Page<Product> specification() {
+        return productRepository.findAll(ProductSpecifications.matching(criteria), pageable);
+    }
+
+    @Benchmark
+    public long catchAll() {
+        List<Product> content = bind(entityManager.createQuery(
+                "SELECT p" + CATCH_ALL_WHERE + " ORDER BY p.id", Product.class))
+                .setMaxResults(PAGE_SIZE)
+                .getResultList();
+        return content.size() + bind(entityManager.createQuery(
+                "SELECT COUNT(p)" + CATCH_ALL_WHERE, Long.class)).getSingleResult();
+    }
+
+    // Runs the variant once with SQL capture on and prints each statement's plan
+    private void explain(String variant, Runnable query) throws SQLException {
+        CapturingInspector.captured.clear();
+        CapturingInspector.capturing = true;
+        try {
+            query.run();
+        } finally {
+            CapturingInspector.capturing = false;
+        }
+
+        try (Connection connection = context.getBean(DataSource.class).getConnection()) {
+            for (String sql : CapturingInspector.captured) {
+                // H2 plans statements with unbound parameters, as it would for the real query
+                try (PreparedStatement statement = connection.prepareStatement("EXPLAIN " + sql);
+                     ResultSet plan = statement.executeQuery()) {
+                    plan.next();
+                    System.out.printf("%n[%s %s] %s%n%s%n", variant, filters, sql, plan.getString(1));
+                }
+            }
+        }
+    }
+
+    private <T> TypedQuery<T> bind(TypedQuery<T> query) {
+        return query.setParameter("name", criteria.getName())
+                .setParameter("category", criteria.getCategory())
+                .setParameter("minPrice", criteria.getMinPrice())
+                .setParameter("maxPrice", criteria.getMaxPrice())
+                .setParameter("active", criteria.getActive());
+    }
+
+    /**
+     * Records the SQL Hibernate sends while {@link #capturing} is set; named in
+     * the {@code statement_inspector} setting, so Hibernate creates it.
+     */
+    public static class CapturingInspector implements StatementInspector {
+        static final List<String> captured = new CopyOnWriteArrayList<>();
+        static volatile boolean capturing;
+
+        @Override
+        public String inspect(String sql) {
+            if (capturing) {
+                captured.add(sql);
+            }
+            return sql;
+        }
+    }
+}
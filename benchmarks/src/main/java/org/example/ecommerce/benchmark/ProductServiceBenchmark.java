@@ -0,0 +1,84 @@
+package org.example.ecommerce.benchmark;
+
+import org.example.ecommerce.cache.ProductCache;
+import org.example.ecommerce.dto.PagedResponse;
+import org.example.ecommerce.dto.ProductDTO;
+import org.example.ecommerce.service.ProductService;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Cache hit and miss paths of {@link ProductService#getProduct} and of a
+ * 20-product page from {@link ProductService#getAllProducts}. The miss
+ * variants evict first, so they include the query and the entity-to-DTO
+ * page mapping.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 5)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class ProductServiceBenchmark {
+    private static final int PAGE_SIZE = 20;
+
+    private ConfigurableApplicationContext context;
+    private ProductService productService;
+    private ProductCache productCache;
+    private Cache pageCache;
+    private List<Long> productIds;
+
+    @Setup
+    public void setUp() {
+        context = BenchmarkApplication.start("products");
+        productService = context.getBean(ProductService.class);
+        productCache = context.getBean(ProductCache.class);
+        pageCache = context.getBean(CacheManager.class).getCache(ProductCache.PRODUCT_PAGES);
+
+        productIds = List.of(BenchmarkApplication.seedProducts(context, 1000).get(500));
+        productService.getProduct(productIds.get(0));
+        productService.getAllProducts(0, PAGE_SIZE, "id", "asc");
+    }
+
+    @TearDown
+    public void tearDown() {
+        context.close();
+    }
+
+    @Benchmark
+    public ProductDTO getProductHit() {
+        return productService.getProduct(productIds.get(0));
+    }
+
+    @Benchmark
+    public ProductDTO getProductMiss() {
+        productCache.evict(productIds);
+        return productService.getProduct(productIds.get(0));
+    }
+
+    @Benchmark
+    public PagedResponse<ProductDTO> getPageHit() {
+        return productService.getAllProducts(0, PAGE_SIZE, "id", "asc");
+    }
+
+    @Benchmark
+    public PagedResponse<ProductDTO> getPageMiss() {
+        pageCache.clear();
+        return productService.getAllProducts(0, PAGE_SIZE, "id", "asc");
+    }
+}
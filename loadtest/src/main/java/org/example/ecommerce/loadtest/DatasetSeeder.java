@@ -0,0 +1,152 @@
+package org.example.ecommerce.loadtest;
+
+import org.example.ecommerce.entity.Order;
+import org.example.ecommerce.entity.OrderItem;
+import org.example.ecommerce.entity.OrderStatus;
+import org.example.ecommerce.entity.Product;
+import org.example.ecommerce.entity.User;
+import org.example.ecommerce.entity.UserRole;
+import org.example.ecommerce.repository.OrderRepository;
+import org.example.ecommerce.repository.ProductRepository;
+import org.example.ecommerce.repository.UserRepository;
+import org.example.ecommerce.service.CatalogFormat;
+import org.example.ecommerce.service.ProductImportService;
+import org.example.ecommerce.stats.OrderStatsAggregator;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.data.domain.Sort;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.stream.Collectors;
+
+/**
+ * Fills a freshly started application with a reproducible dataset: the same
+ * volumes and seed always give the same products, users and order history.
+ * Products go through the bulk import; users and past orders are inserted
+ * through the repositories in batches, without touching stock.
+ */
+class DatasetSeeder {
+    private static final int CATEGORIES = 20;
+    private static final int BATCH_SIZE = 1000;
+    private static final int HISTORY_DAYS = 90;
+
+    record Volumes(int products, int users, int orders, long seed) {
+    }
+
+    private final ConfigurableApplicationContext context;
+    private final TransactionTemplate transactionTemplate;
+
+    DatasetSeeder(ConfigurableApplicationContext context) {
+        this.context = context;
+        this.transactionTemplate = new TransactionTemplate(context.getBean(PlatformTransactionManager.class));
+    }
+
+    LoadDriver.Dataset seed(Volumes volumes) throws IOException {
+        long started = System.currentTimeMillis();
+        Random random = new Random(volumes.seed());
+
+        List<Product> products = seedProducts(volumes.products());
+        List<User> users = seedUsers(volumes.users());
+        Map<Long, OrderStatus> orders = seedOrders(volumes.orders(), products, users, random);
+        // Past orders bypass the order services, so the sales statistics are recomputed once
+        context.getBean(OrderStatsAggregator.class).rebuild();
+
+        System.out.printf("Seeded %d products, %d users and %d orders in %d ms%n",
+                products.size(), users.size(), orders.size(), System.currentTimeMillis() - started);
+
+        List<String> categories = new ArrayList<>(CATEGORIES);
+        for (int i = 0; i < CATEGORIES; i++) {
+            categories.add("category-" + i);
+        }
+        return new LoadDriver.Dataset(
+                products.stream().map(Product::getId).toList(),
+                users.stream().map(User::getId).toList(),
+                orders.entrySet().stream()
+                        .filter(order -> LoadDriver.forward(order.getValue()) != null)
+                        .map(order -> new LoadDriver.OpenOrder(order.getKey(), order.getValue()))
+                        .collect(Collectors.toCollection(ConcurrentLinkedQueue::new)),
+                categories);
+    }
+
+    private List<Product> seedProducts(int count) throws IOException {
+        StringBuilder csv = new StringBuilder(CatalogFormat.CSV_COLUMNS).append('\n');
+        for (int i = 0; i < count; i++) {
+            csv.append("Product ").append(i).append(",Seeded product ").append(i).append(',')
+                    .append(1 + i % 500).append(",1000000,category-").append(i % CATEGORIES).append(",\n");
+        }
+        context.getBean(ProductImportService.class).importProducts(CatalogFormat.CSV,
+                new ByteArrayInputStream(csv.toString().getBytes(StandardCharsets.UTF_8)));
+        return context.getBean(ProductRepository.class).findAll(Sort.by("id"));
+    }
+
+    private List<User> seedUsers(int count) {
+        UserRepository userRepository = context.getBean(UserRepository.class);
+        List<User> users = new ArrayList<>(count);
+        for (int start = 0; start < count; start += BATCH_SIZE) {
+            List<User> batch = new ArrayList<>(BATCH_SIZE);
+            for (int i = start; i < Math.min(start + BATCH_SIZE, count); i++) {
+                batch.add(User.builder()
+                        .email("user" + i + "@loadtest.example")
+                        .password("password")
+                        .firstName("Load")
+                        .lastName("Test " + i)
+                        .role(UserRole.CUSTOMER)
+                        .build());
+            }
+            users.addAll(userRepository.saveAll(batch));
+        }
+        return users;
+    }
+
+    // Orders spread over the last HISTORY_DAYS days, mostly already fulfilled
+    private Map<Long, OrderStatus> seedOrders(int count, List<Product> products, List<User> users,
+                                              Random random) {
+        OrderRepository orderRepository = context.getBean(OrderRepository.class);
+        OrderStatus[] statuses = OrderStatus.values();
+        LocalDateTime now = LocalDateTime.now();
+
+        Map<Long, OrderStatus> orders = new LinkedHashMap<>(count * 2);
+        for (int start = 0; start < count; start += BATCH_SIZE) {
+            List<Order> batch = new ArrayList<>(BATCH_SIZE);
+            for (int i = start; i < Math.min(start + BATCH_SIZE, count); i++) {
+                Order order = Order.builder()
+                        .user(users.get(random.nextInt(users.size())))
+                        .status(statuses[random.nextInt(statuses.length)])
+                        .shippingAddress("1 Load Test Street")
+                        .createdAt(now.minusMinutes(random.nextInt(HISTORY_DAYS * 24 * 60)))
+                        .items(new ArrayList<>())
+                        .build();
+                BigDecimal total = BigDecimal.ZERO;
+                int lines = 1 + random.nextInt(3);
+                for (int line = 0; line < lines; line++) {
+                    Product product = products.get(random.nextInt(products.size()));
+                    int quantity = 1 + random.nextInt(3);
+                    order.getItems().add(OrderItem.builder()
+                            .order(order)
+                            .product(product)
+                            .quantity(quantity)
+                            .price(product.getPrice())
+                            .stockApplied(true)
+                            .build());
+                    total = total.add(product.getPrice().multiply(BigDecimal.valueOf(quantity)));
+                }
+                order.setTotalAmount(total);
+                batch.add(order);
+            }
+            transactionTemplate.executeWithoutResult(status -> orderRepository.saveAll(batch)
+                    .forEach(order -> orders.put(order.getId(), order.getStatus())));
+        }
+        return orders;
+    }
+}
@@ -0,0 +1,264 @@
+package org.example.ecommerce.loadtest;
+
+import org.HdrHistogram.Histogram;
+import org.HdrHistogram.Recorder;
+import org.example.ecommerce.entity.OrderStatus;
+
+import java.io.IOException;
+import java.io.PrintStream;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.NavigableMap;
+import java.util.Queue;
+import java.util.TreeMap;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Closed-loop HTTP load: each connection sends its next request as soon as
+ * the previous one completes, so throughput is bounded by server latency.
+ */
+class LoadDriver {
+    private static final long MAX_LATENCY_NANOS = TimeUnit.SECONDS.toNanos(60);
+    private static final Duration REQUEST_TIMEOUT = Duration.ofSeconds(30);
+
+    static final List<String> OPERATIONS =
+            List.of("read product", "browse", "search", "place order", "update status");
+
+    record Settings(int connections, int warmupSeconds, int durationSeconds, boolean asyncReads,
+                    boolean orderIntake, Map<String, Integer> mix) {
+    }
+
+    // openOrders: seeded orders that can still move forward, with their current status; shared
+    // by consecutive passes so each one picks up where the previous one left the orders
+    record Dataset(List<Long> productIds, List<Long> userIds, Queue<OpenOrder> openOrders,
+                   List<String> categories) {
+    }
+
+    record OpenOrder(Long id, OrderStatus status) {
+    }
+
+    private final String baseUrl;
+    private final Dataset dataset;
+    private final Settings settings;
+    private final HttpClient client;
+    private final Map<String, Recorder> recorders = new LinkedHashMap<>();
+    private final Map<String, AtomicLong> errors = new LinkedHashMap<>();
+    // Operations by cumulative weight, for picking the next one
+    private final NavigableMap<Integer, String> mix = new TreeMap<>();
+    private final int totalWeight;
+
+    LoadDriver(String baseUrl, Dataset dataset, Settings settings) {
+        this.baseUrl = baseUrl;
+        this.dataset = dataset;
+        this.settings = settings;
+        this.client = HttpClient.newBuilder()
+                .version(HttpClient.Version.HTTP_1_1)
+                .connectTimeout(Duration.ofSeconds(10))
+                .build();
+        int weight = 0;
+        for (String operation : OPERATIONS) {
+            int share = settings.mix().getOrDefault(operation, 0);
+            // Status updates need seeded orders to work on
+            if (share <= 0 || operation.equals("update status") && dataset.openOrders().isEmpty()) {
+                continue;
+            }
+            weight += share;
+            mix.put(weight, operation);
+            recorders.put(operation, new Recorder(MAX_LATENCY_NANOS, 3));
+            errors.put(operation, new AtomicLong());
+        }
+        this.totalWeight = weight;
+    }
+
+    Report run() throws InterruptedException {
+        long start = System.nanoTime();
+        long measureFrom = start + TimeUnit.SECONDS.toNanos(settings.warmupSeconds());
+        long end = measureFrom + TimeUnit.SECONDS.toNanos(settings.durationSeconds());
+
+        List<Thread> connections = new ArrayList<>(settings.connections());
+        for (int i = 0; i < settings.connections(); i++) {
+            Thread connection = new Thread(() -> loop(measureFrom, end), "load-" + i);
+            connection.start();
+            connections.add(connection);
+        }
+        for (Thread connection : connections) {
+            connection.join();
+        }
+
+        Map<String, Histogram> histograms = new LinkedHashMap<>();
+        recorders.forEach((operation, recorder) -> histograms.put(operation, recorder.getIntervalHistogram()));
+        Map<String, Long> errorCounts = new LinkedHashMap<>();
+        errors.forEach((operation, count) -> errorCounts.put(operation, count.get()));
+        return new Report(histograms, errorCounts, settings.durationSeconds());
+    }
+
+    private void loop(long measureFrom, long end) {
+        boolean measuring = false;
+        while (true) {
+            long now = System.nanoTime();
+            if (now >= end) {
+                return;
+            }
+            if (!measuring && now >= measureFrom) {
+                measuring = true;
+            }
+            ThreadLocalRandom random = ThreadLocalRandom.current();
+            String operation = mix.higherEntry(random.nextInt(totalWeight)).getValue();
+            if (operation.equals("update status")) {
+                advanceOrder(measuring);
+            } else {
+                send(operation, request(operation, random), measuring);
+            }
+        }
+    }
+
+    // One legal step along the order lifecycle, so updates are never refused as invalid
+    // transitions. An order is out of the queue while its update is in flight, and goes
+    // back until it is delivered
+    private void advanceOrder(boolean measuring) {
+        Queue<OpenOrder> openOrders = dataset.openOrders();
+        OpenOrder order = openOrders.poll();
+        if (order == null) {
+            return;
+        }
+        OrderStatus next = forward(order.status());
+        boolean ok = send("update status",
+                patch("/api/v1/orders/" + order.id() + "/status?status=" + next), measuring);
+        if (ok && forward(next) != null) {
+            openOrders.add(new OpenOrder(order.id(), next));
+        }
+    }
+
+    static OrderStatus forward(OrderStatus status) {
+        return status.nextStatuses().stream()
+                .filter(next -> next != OrderStatus.CANCELLED)
+                .findFirst()
+                .orElse(null);
+    }
+
+    private boolean send(String operation, HttpRequest request, boolean measuring) {
+        long started = System.nanoTime();
+        boolean ok;
+        try {
+            HttpResponse<Void> response = client.send(request, HttpResponse.BodyHandlers.discarding());
+            ok = response.statusCode() < 400;
+        } catch (Exception e) {
+            ok = false;
+        }
+        if (!measuring) {
+            return ok;
+        }
+        if (ok) {
+            recorders.get(operation).recordValue(Math.min(System.nanoTime() - started, MAX_LATENCY_NANOS));
+        } else {
+            errors.get(operation).incrementAndGet();
+        }
+        return ok;
+    }
+
+    private HttpRequest request(String operation, ThreadLocalRandom random) {
+        return switch (operation) {
+            case "read product" -> get(productsPath() + "/" + pick(dataset.productIds()));
+            case "browse" -> get(productsPath() + "?page=" + random.nextInt(10) + "&size=20");
+            // A word from the seeded product names, sometimes narrowed to a category
+            case "search" -> get("/api/v1/products/search?name=" + random.nextInt(1000)
+                    + (random.nextBoolean() ? "&category=" + pick(dataset.categories()) : "") + "&size=20");
+            case "place order" ->
+                    post(settings.orderIntake() ? "/api/v1/order-intake" : "/api/v1/orders", orderBody(random));
+            default -> throw new IllegalArgumentException("Unknown operation: " + operation);
+        };
+    }
+
+    private String orderBody(ThreadLocalRandom random) {
+        StringBuilder items = new StringBuilder();
+        int lines = 1 + random.nextInt(3);
+        for (int i = 0; i < lines; i++) {
+            if (i > 0) {
+                items.append(',');
+            }
+            items.append("{\"productId\":").append(pick(dataset.productIds()))
+                    .append(",\"quantity\":").append(1 + random.nextInt(3)).append('}');
+        }
+        return "{\"userId\":" + pick(dataset.userIds())
+                + ",\"items\":[" + items + "],\"shippingAddress\":\"1 Load Test Street\"}";
+    }
+
+    private String productsPath() {
+        return settings.asyncReads() ? "/api/v1/async/products" : "/api/v1/products";
+    }
+
+    private HttpRequest get(String path) {
+        return HttpRequest.newBuilder(URI.create(baseUrl + path)).timeout(REQUEST_TIMEOUT).GET().build();
+    }
+
+    private HttpRequest post(String path, String json) {
+        return HttpRequest.newBuilder(URI.create(baseUrl + path))
+                .timeout(REQUEST_TIMEOUT)
+                .header("Content-Type", "application/json")
+                .POST(HttpRequest.BodyPublishers.ofString(json))
+                .build();
+    }
+
+    private HttpRequest patch(String path) {
+        return HttpRequest.newBuilder(URI.create(baseUrl + path))
+                .timeout(REQUEST_TIMEOUT)
+                .method("PATCH", HttpRequest.BodyPublishers.noBody())
+                .build();
+    }
+
+    private static <T> T pick(List<T> values) {
+        return values.get(ThreadLocalRandom.current().nextInt(values.size()));
+    }
+
+    record Report(Map<String, Histogram> histograms, Map<String, Long> errors, int durationSeconds) {
+
+        void print(PrintStream out) {
+            out.printf("%-14s %10s %10s %10s %10s %10s %8s%n",
+                    "operation", "ops/s", "p50 ms", "p99 ms", "p999 ms", "max ms", "errors");
+            Histogram total = new Histogram(MAX_LATENCY_NANOS, 3);
+            histograms.forEach((operation, histogram) -> {
+                total.add(histogram);
+                printRow(out, operation, histogram, errors.get(operation));
+            });
+            printRow(out, "total", total, errors.values().stream().mapToLong(Long::longValue).sum());
+        }
+
+        // Full percentile distributions in HdrHistogram's .hgrm format, one file per operation
+        void writeHistograms(Path directory, String label) throws IOException {
+            Files.createDirectories(directory);
+            for (Map.Entry<String, Histogram> entry : histograms.entrySet()) {
+                Path file = directory.resolve(label + "-" + entry.getKey().replace(' ', '-') + ".hgrm");
+                try (PrintStream out = new PrintStream(Files.newOutputStream(file), false, StandardCharsets.UTF_8)) {
+                    entry.getValue().outputPercentileDistribution(out, 1_000_000.0);
+                }
+            }
+        }
+
+        private void printRow(PrintStream out, String operation, Histogram histogram, long errorCount) {
+            out.printf("%-14s %10.1f %10.2f %10.2f %10.2f %10.2f %8d%n",
+                    operation,
+                    (double) histogram.getTotalCount() / durationSeconds,
+                    millis(histogram.getValueAtPercentile(50)),
+                    millis(histogram.getValueAtPercentile(99)),
+                    millis(histogram.getValueAtPercentile(99.9)),
+                    millis(histogram.getMaxValue()),
+                    errorCount);
+        }
+
+        private static double millis(long nanos) {
+            return nanos / 1_000_000.0;
+        }
+    }
+}
@@ -0,0 +1,107 @@
+package org.example.ecommerce.loadtest;
+
+import org.example.ecommerce.EcommerceApplication;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.nio.file.Path;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Boots the application on an embedded H2 database, seeds it and drives
+ * a closed-loop workload against the REST API, once per threading mode.
+ * <p>
+ * Usage: {@code java -jar loadtest.jar [mode=both|platform|virtual] [reads=sync|async]
+ * [orders=sync|intake] [connections=64] [duration=30] [warmup=10] [products=1000] [users=100]
+ * [seed-orders=10000] [seed=42] [mix=read:60,browse:10,search:10,order:15,status:5] [histograms=dir]}
+ * <p>
+ * Virtual threads need Java 21: below it {@code mode=both} runs the platform
+ * pass only and {@code mode=virtual} is refused, since the application would
+ * quietly fall back to platform threads and report them as virtual.
+ */
+public class LoadTest {
+    private static final String DEFAULT_MIX = "read:60,browse:10,search:10,order:15,status:5";
+
+    public static void main(String[] args) throws Exception {
+        Map<String, String> options = new HashMap<>();
+        for (String arg : args) {
+            int eq = arg.indexOf('=');
+            options.put(arg.substring(0, eq).replaceFirst("^--", ""), arg.substring(eq + 1));
+        }
+        String mode = options.getOrDefault("mode", "both");
+        LoadDriver.Settings settings = new LoadDriver.Settings(
+                Integer.parseInt(options.getOrDefault("connections", "64")),
+                Integer.parseInt(options.getOrDefault("warmup", "10")),
+                Integer.parseInt(options.getOrDefault("duration", "30")),
+                options.getOrDefault("reads", "sync").equals("async"),
+                options.getOrDefault("orders", "sync").equals("intake"),
+                parseMix(options.getOrDefault("mix", DEFAULT_MIX)));
+        DatasetSeeder.Volumes volumes = new DatasetSeeder.Volumes(
+                Integer.parseInt(options.getOrDefault("products", "1000")),
+                Integer.parseInt(options.getOrDefault("users", "100")),
+                Integer.parseInt(options.getOrDefault("seed-orders", "10000")),
+                Long.parseLong(options.getOrDefault("seed", "42")));
+        String histograms = options.get("histograms");
+
+        List<String> modes = mode.equals("both") ? List.of("platform", "virtual") : List.of(mode);
+        int javaVersion = Runtime.version().feature();
+        if (javaVersion < 21 && modes.contains("virtual")) {
+            if (!mode.equals("both")) {
+                throw new IllegalArgumentException("mode=virtual needs Java 21 or later, running on Java " + javaVersion);
+            }
+            System.err.printf("Java %d has no virtual threads; running the platform pass only%n", javaVersion);
+            modes = List.of("platform");
+        }
+        for (String threading : modes) {
+            try (ConfigurableApplicationContext context = start(threading, settings.orderIntake())) {
+                int port = context.getEnvironment().getRequiredProperty("local.server.port", Integer.class);
+                LoadDriver.Dataset dataset = new DatasetSeeder(context).seed(volumes);
+                System.out.printf("%n== %s threads, %s reads, %s orders, %d connections ==%n", threading,
+                        settings.asyncReads() ? "async" : "sync", settings.orderIntake() ? "intake" : "sync",
+                        settings.connections());
+                LoadDriver.Report report = new LoadDriver("http://localhost:" + port, dataset, settings).run();
+                report.print(System.out);
+                if (histograms != null) {
+                    report.writeHistograms(Path.of(histograms), threading);
+                }
+            }
+        }
+    }
+
+    private static ConfigurableApplicationContext start(String threading, boolean orderIntake) {
+        SpringApplicationBuilder builder = new SpringApplicationBuilder(EcommerceApplication.class);
+        if (threading.equals("virtual")) {
+            builder.profiles("virtual-threads");
+        }
+        // Passed as arguments so they win over application.yml
+        return builder.run(
+                "--server.port=0",
+                "--spring.datasource.url=jdbc:h2:mem:loadtest-" + threading + ";DB_CLOSE_DELAY=-1;MODE=PostgreSQL",
+                "--spring.datasource.username=sa",
+                "--spring.datasource.password=",
+                "--spring.datasource.driver-class-name=org.h2.Driver",
+                "--spring.jpa.properties.hibernate.dialect=org.hibernate.dialect.H2Dialect",
+                "--app.orders.async-intake.enabled=" + orderIntake,
+                "--logging.level.root=WARN");
+    }
+
+    // e.g. "read:60,browse:10,search:10,order:15,status:5"
+    private static Map<String, Integer> parseMix(String mix) {
+        Map<String, String> operations = Map.of("read", "read product", "browse", "browse", "search", "search",
+                "order", "place order", "status", "update status");
+        Map<String, Integer> weights = new LinkedHashMap<>();
+        for (String part : mix.split(",")) {
+            String[] entry = part.split(":");
+            String operation = operations.get(entry[0].trim());
+            if (operation == null || entry.length != 2) {
+                throw new IllegalArgumentException("Bad mix entry '" + part + "', expected one of "
+                        + operations.keySet() + " with a weight, e.g. read:60");
+            }
+            weights.put(operation, Integer.parseInt(entry[1].trim()));
+        }
+        return weights;
+    }
+}
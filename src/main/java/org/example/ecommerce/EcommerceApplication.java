@@ -1,19 +1,18 @@
 package org.example.ecommerce;
 
-import org.example.ecommerce.dto.ProductDTO;
-import org.example.ecommerce.entity.Product;
-import org.modelmapper.ModelMapper;
-import org.modelmapper.convention.MatchingStrategies;
 import org.springframework.boot.SpringApplication;
 import org.springframework.boot.WebApplicationType;
 import org.springframework.boot.autoconfigure.SpringBootApplication;
 import org.springframework.cache.annotation.EnableCaching;
 import org.springframework.context.annotation.Bean;
+import org.springframework.core.Ordered;
 import org.springframework.scheduling.annotation.EnableAsync;
 import org.springframework.scheduling.annotation.EnableScheduling;
 import org.springframework.web.client.RestTemplate;
 
-@EnableCaching
+// Cache advice runs outside the transaction: hits never open one, and callers
+// waiting on a shared cache load do not sit on a pooled connection
+@EnableCaching(order = Ordered.HIGHEST_PRECEDENCE)
 @EnableAsync
 @EnableScheduling
 @SpringBootApplication
@@ -24,23 +23,6 @@ public class EcommerceApplication {
         app.run(args);
     }
 
-    @Bean
-    public ModelMapper modelMapper() {
-        ModelMapper mapper = new ModelMapper();
-
-        // Configure strict matching (safer)
-        mapper.getConfiguration()
-                .setMatchingStrategy(MatchingStrategies.STRICT)
-                .setSkipNullEnabled(true);  // Don't copy null values
-
-        // Custom mapping for complex scenarios
-        mapper.createTypeMap(Product.class, ProductDTO.class)
-                .addMapping(Product::getId, ProductDTO::setId)
-                .addMapping(Product::getName, ProductDTO::setName);
-
-        return mapper;
-    }
-
     @Bean
     public RestTemplate restTemplate() {
         return new RestTemplate();
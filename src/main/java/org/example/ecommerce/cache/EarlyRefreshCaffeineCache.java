@@ -0,0 +1,226 @@
+package org.example.ecommerce.cache;
+
+import com.github.benmanes.caffeine.cache.Expiry;
+import com.github.benmanes.caffeine.cache.LoadingCache;
+import com.github.benmanes.caffeine.cache.stats.StatsCounter;
+import org.springframework.cache.caffeine.CaffeineCache;
+
+import java.time.Duration;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Function;
+
+/**
+ * Caffeine cache that spreads out expiry and refreshes hot entries ahead of it.
+ * <p>
+ * Each entry lives for the configured TTL minus a random jitter, so entries
+ * written together do not expire together. On every hit the entry is reloaded
+ * in the background with a probability that grows as its expiry approaches
+ * (the "XFetch" rule: refresh when {@code remaining <= window * -ln(rand)}),
+ * so a frequently read entry is almost always renewed before anyone misses it.
+ * <p>
+ * Misses and refreshes for the same key each share a single in-flight load.
+ * Misses are coalesced on a future outside Caffeine's per-key compute lock, so
+ * a slow load never blocks puts and evictions of that key by writers that may
+ * themselves be holding database connections. Those caller-side loads are
+ * recorded in the cache's {@link StatsCounter} like Caffeine's own, so load
+ * counts and load time cover misses as well as refreshes.
+ */
+public class EarlyRefreshCaffeineCache extends CaffeineCache {
+    private final LoadingCache<Object, Object> cache;
+    private final long earlyRefreshNanos;
+    private final StatsCounter statsCounter;
+    private final ConcurrentHashMap<Object, CompletableFuture<Object>> inFlight = new ConcurrentHashMap<>();
+
+    /**
+     * @param statsCounter the counter {@code cache} was built with via
+     *                     {@code Caffeine.recordStats(Supplier)}
+     */
+    public EarlyRefreshCaffeineCache(String name, LoadingCache<Object, Object> cache, Duration earlyRefresh,
+                                     StatsCounter statsCounter) {
+        super(name, cache);
+        this.cache = cache;
+        this.earlyRefreshNanos = earlyRefresh.toNanos();
+        this.statsCounter = statsCounter;
+    }
+
+    public static Expiry<Object, Object> jitteredExpiry(Duration ttl, double jitter) {
+        long ttlNanos = ttl.toNanos();
+        long maxJitterNanos = (long) (ttlNanos * jitter);
+        return new Expiry<>() {
+            @Override
+            public long expireAfterCreate(Object key, Object value, long currentTime) {
+                return maxJitterNanos > 0
+                        ? ttlNanos - ThreadLocalRandom.current().nextLong(maxJitterNanos)
+                        : ttlNanos;
+            }
+
+            @Override
+            public long expireAfterUpdate(Object key, Object value, long currentTime, long currentDuration) {
+                return expireAfterCreate(key, value, currentTime);
+            }
+
+            @Override
+            public long expireAfterRead(Object key, Object value, long currentTime, long currentDuration) {
+                return currentDuration;
+            }
+        };
+    }
+
+    // Reads go through getIfPresent so a plain miss falls through to the caller's
+    // own load (@Cacheable or a page's bulk query) instead of a per-id load
+    @Override
+    protected Object lookup(Object key) {
+        Object value = cache.getIfPresent(key);
+        if (value != null && shouldRefreshEarly(key)) {
+            cache.refresh(key);
+        }
+        return value;
+    }
+
+    @Override
+    @SuppressWarnings("unchecked")
+    public <T> T get(Object key, Callable<T> valueLoader) {
+        Object value = lookup(key);
+        if (value != null) {
+            return (T) fromStoreValue(value);
+        }
+
+        CompletableFuture<Object> load = new CompletableFuture<>();
+        CompletableFuture<Object> existing = inFlight.putIfAbsent(key, load);
+        if (existing != null) {
+            Object shared;
+            try {
+                shared = existing.join();
+            } catch (CompletionException ex) {
+                throw new ValueRetrievalException(key, valueLoader, ex.getCause());
+            }
+            // A bulk load that did not find the key completes with null; let the
+            // caller's loader decide what a missing value means
+            if (shared != null) {
+                return (T) fromStoreValue(shared);
+            }
+            try {
+                return valueLoader.call();
+            } catch (Exception ex) {
+                throw new ValueRetrievalException(key, valueLoader, ex);
+            }
+        }
+
+        long started = System.nanoTime();
+        try {
+            Object loaded = toStoreValue(valueLoader.call());
+            statsCounter.recordLoadSuccess(System.nanoTime() - started);
+            // Skip the put if the key was evicted while loading: the value may predate the write
+            if (inFlight.remove(key, load)) {
+                cache.put(key, loaded);
+            }
+            load.complete(loaded);
+            return (T) fromStoreValue(loaded);
+        } catch (Throwable ex) {
+            statsCounter.recordLoadFailure(System.nanoTime() - started);
+            inFlight.remove(key, load);
+            load.completeExceptionally(ex);
+            throw new ValueRetrievalException(key, valueLoader, ex);
+        }
+    }
+
+    /**
+     * Bulk form of {@link #get(Object, Callable)}: the keys that are not cached
+     * are loaded with one call to {@code loader}, which returns the values it
+     * found by key. Every one of them is marked in flight before the load, so
+     * an eviction that lands while it runs keeps the loaded value out of the
+     * cache, and concurrent loads of a key share one.
+     */
+    public Map<Object, Object> getAll(Collection<?> keys, Function<Collection<Object>, Map<?, ?>> loader) {
+        Map<Object, Object> values = new HashMap<>();
+        Map<Object, CompletableFuture<Object>> owned = new LinkedHashMap<>();
+        Map<Object, CompletableFuture<Object>> joined = new HashMap<>();
+        for (Object key : keys) {
+            Object value = lookup(key);
+            if (value != null) {
+                values.put(key, fromStoreValue(value));
+                continue;
+            }
+            CompletableFuture<Object> load = new CompletableFuture<>();
+            CompletableFuture<Object> existing = inFlight.putIfAbsent(key, load);
+            if (existing != null) {
+                joined.put(key, existing);
+            } else {
+                owned.put(key, load);
+            }
+        }
+
+        if (!owned.isEmpty()) {
+            long started = System.nanoTime();
+            Map<?, ?> loaded;
+            try {
+                loaded = loader.apply(owned.keySet());
+                statsCounter.recordLoadSuccess(System.nanoTime() - started);
+            } catch (RuntimeException ex) {
+                statsCounter.recordLoadFailure(System.nanoTime() - started);
+                owned.forEach((key, load) -> {
+                    inFlight.remove(key, load);
+                    load.completeExceptionally(ex);
+                });
+                throw ex;
+            }
+            owned.forEach((key, load) -> {
+                Object value = loaded.get(key);
+                Object stored = value != null ? toStoreValue(value) : null;
+                if (inFlight.remove(key, load) && stored != null) {
+                    cache.put(key, stored);
+                }
+                load.complete(stored);
+                if (value != null) {
+                    values.put(key, value);
+                }
+            });
+        }
+
+        joined.forEach((key, load) -> {
+            Object value = load.join();
+            if (value != null) {
+                values.put(key, fromStoreValue(value));
+            }
+        });
+        return values;
+    }
+
+    @Override
+    public void evict(Object key) {
+        inFlight.remove(key);
+        super.evict(key);
+    }
+
+    @Override
+    public boolean evictIfPresent(Object key) {
+        inFlight.remove(key);
+        return super.evictIfPresent(key);
+    }
+
+    @Override
+    public void clear() {
+        inFlight.clear();
+        super.clear();
+    }
+
+    private boolean shouldRefreshEarly(Object key) {
+        if (earlyRefreshNanos <= 0) {
+            return false;
+        }
+        long remaining = cache.policy().expireVariably()
+                .flatMap(policy -> policy.getExpiresAfter(key, TimeUnit.NANOSECONDS).stream().boxed().findFirst())
+                .orElse(Long.MAX_VALUE);
+        double draw = -Math.log(1.0 - ThreadLocalRandom.current().nextDouble());
+        return remaining <= earlyRefreshNanos * draw;
+    }
+}
@@ -0,0 +1,145 @@
+package org.example.ecommerce.cache;
+
+import org.example.ecommerce.dto.PagedResponse;
+import org.example.ecommerce.dto.ProductDTO;
+import org.example.ecommerce.event.ProductChangedEvent;
+import org.example.ecommerce.event.ProductsImportedEvent;
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
+import org.springframework.cache.transaction.TransactionAwareCacheDecorator;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.StringJoiner;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Function;
+import java.util.function.Supplier;
+
+/**
+ * Product cache layer on top of the {@code products} and {@code productPages} caches.
+ * <p>
+ * List and search pages are cached as the ordered product ids plus paging
+ * metadata, keyed by a catalog version that moves on every product change, so
+ * stale pages are simply never looked up again. The products themselves are
+ * served from the per-id cache, which is evicted key by key on every write,
+ * including stock changes; a stock change therefore never invalidates pages.
+ * <p>
+ * Products are only written to the per-id cache through its guarded bulk
+ * load, which marks the ids in flight before querying, so an eviction that
+ * lands during the query keeps the loaded copy out. A page miss does not write
+ * them: its query ran before anything could be marked, so the next hit of that
+ * page loads them instead.
+ */
+@Component
+public class ProductCache {
+    public static final String PRODUCTS = "products";
+    public static final String PRODUCT_PAGES = "productPages";
+
+    private final Cache products;
+    private final Cache pages;
+    private final GuardedBulkLoad bulkProducts;
+    private final AtomicLong catalogVersion = new AtomicLong();
+
+    public ProductCache(CacheManager cacheManager) {
+        this.products = cacheManager.getCache(PRODUCTS);
+        this.pages = cacheManager.getCache(PRODUCT_PAGES);
+        this.bulkProducts = guardedBulkLoad(products);
+    }
+
+    // The guard lives in the local tier, below the transaction-aware decorator
+    private static GuardedBulkLoad guardedBulkLoad(Cache cache) {
+        Cache target = cache instanceof TransactionAwareCacheDecorator decorator
+                ? decorator.getTargetCache() : cache;
+        if (target instanceof TieredCache tiered) {
+            return tiered::getAll;
+        }
+        if (target instanceof EarlyRefreshCaffeineCache local) {
+            return local::getAll;
+        }
+        throw new IllegalStateException("Cache " + PRODUCTS + " does not support guarded bulk loads: "
+                + target.getClass().getName());
+    }
+
+    public String pageKey(Object... parts) {
+        StringJoiner key = new StringJoiner(":");
+        key.add(String.valueOf(catalogVersion.get()));
+        for (Object part : parts) {
+            key.add(String.valueOf(part));
+        }
+        return key.toString();
+    }
+
+    public PagedResponse<ProductDTO> getPage(String key,
+                                             Supplier<PagedResponse<ProductDTO>> loader,
+                                             Function<Collection<Long>, List<ProductDTO>> bulkLoader) {
+        @SuppressWarnings("unchecked")
+        PagedResponse<Long> ids = pages.get(key, PagedResponse.class);
+        if (ids == null) {
+            PagedResponse<ProductDTO> page = loader.get();
+            pages.put(key, new PagedResponse<>(
+                    page.getContent().stream().map(ProductDTO::getId).toList(),
+                    page.getPageNumber(),
+                    page.getPageSize(),
+                    page.getTotalElements(),
+                    page.getTotalPages(),
+                    page.isLast()));
+            return page;
+        }
+
+        // Serve what the per-id cache holds and load the rest in one query
+        Map<Object, Object> found = bulkProducts.getAll(ids.getContent(), missing -> {
+            Map<Long, ProductDTO> loaded = new HashMap<>();
+            bulkLoader.apply(missing.stream().map(Long.class::cast).toList())
+                    .forEach(product -> loaded.put(product.getId(), product));
+            return loaded;
+        });
+
+        List<ProductDTO> content = new ArrayList<>(ids.getContent().size());
+        for (Long id : ids.getContent()) {
+            ProductDTO product = (ProductDTO) found.get(id);
+            if (product != null) {
+                content.add(product);
+            }
+        }
+        return new PagedResponse<>(content, ids.getPageNumber(), ids.getPageSize(),
+                ids.getTotalElements(), ids.getTotalPages(), ids.isLast());
+    }
+
+    public ProductDTO get(Long productId) {
+        return products.get(productId, ProductDTO.class);
+    }
+
+    /**
+     * Evicts products whose stock changed; deferred until the surrounding
+     * transaction commits by the transaction-aware cache manager.
+     */
+    public void evict(Collection<Long> productIds) {
+        productIds.forEach(products::evict);
+    }
+
+    // Runs after the search index listener so new pages never see an outdated index
+    @TransactionalEventListener(fallbackExecution = true)
+    @Order(Ordered.LOWEST_PRECEDENCE)
+    public void onProductChanged(ProductChangedEvent event) {
+        catalogVersion.incrementAndGet();
+    }
+
+    // One bump for a whole import batch
+    @TransactionalEventListener(fallbackExecution = true)
+    @Order(Ordered.LOWEST_PRECEDENCE)
+    public void onProductsImported(ProductsImportedEvent event) {
+        catalogVersion.incrementAndGet();
+    }
+
+    @FunctionalInterface
+    private interface GuardedBulkLoad {
+        Map<Object, Object> getAll(Collection<?> keys, Function<Collection<Object>, Map<?, ?>> loader);
+    }
+}
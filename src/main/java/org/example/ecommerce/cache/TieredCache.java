@@ -0,0 +1,124 @@
+package org.example.ecommerce.cache;
+
+import org.springframework.cache.Cache;
+import org.springframework.cache.caffeine.CaffeineCache;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.Callable;
+import java.util.function.Function;
+
+/**
+ * Local Caffeine tier in front of a shared second tier. Reads fall through
+ * L1 then L2 and promote L2 hits into L1; writes and evictions go to both.
+ * <p>
+ * The L1 is local to this instance and evictions are not broadcast. When a
+ * product changes on another node, that node clears its own L1 and the shared
+ * L2, but this node's L1 keeps serving the old product, and answering 304 for
+ * its ETag, until the entry expires ({@code app.cache.products.ttl}). Lower
+ * that TTL when several nodes share the L2 and staleness matters.
+ */
+public class TieredCache implements Cache {
+    private final EarlyRefreshCaffeineCache local;
+    private final Cache shared;
+
+    public TieredCache(EarlyRefreshCaffeineCache local, Cache shared) {
+        this.local = local;
+        this.shared = shared;
+    }
+
+    public CaffeineCache getLocal() {
+        return local;
+    }
+
+    @Override
+    public String getName() {
+        return local.getName();
+    }
+
+    @Override
+    public Object getNativeCache() {
+        return local.getNativeCache();
+    }
+
+    @Override
+    public ValueWrapper get(Object key) {
+        ValueWrapper value = local.get(key);
+        if (value == null) {
+            value = shared.get(key);
+            if (value != null) {
+                local.put(key, value.get());
+            }
+        }
+        return value;
+    }
+
+    @Override
+    public <T> T get(Object key, Class<T> type) {
+        ValueWrapper value = get(key);
+        return value != null ? type.cast(value.get()) : null;
+    }
+
+    @Override
+    public <T> T get(Object key, Callable<T> valueLoader) {
+        // The local tier coalesces concurrent misses, so they share one L2/DB load
+        return local.get(key, () -> {
+            ValueWrapper value = shared.get(key);
+            if (value != null) {
+                @SuppressWarnings("unchecked")
+                T cached = (T) value.get();
+                return cached;
+            }
+            T loaded = valueLoader.call();
+            shared.put(key, loaded);
+            return loaded;
+        });
+    }
+
+    /**
+     * Bulk load guarded by the local tier like {@link #get(Object, Callable)};
+     * keys missing locally are looked up in L2 before one load of the rest.
+     */
+    public Map<Object, Object> getAll(Collection<?> keys, Function<Collection<Object>, Map<?, ?>> loader) {
+        return local.getAll(keys, missing -> {
+            Map<Object, Object> values = new HashMap<>();
+            List<Object> toLoad = new ArrayList<>();
+            for (Object key : missing) {
+                ValueWrapper value = shared.get(key);
+                if (value != null) {
+                    values.put(key, value.get());
+                } else {
+                    toLoad.add(key);
+                }
+            }
+            if (!toLoad.isEmpty()) {
+                loader.apply(toLoad).forEach((key, value) -> {
+                    shared.put(key, value);
+                    values.put(key, value);
+                });
+            }
+            return values;
+        });
+    }
+
+    @Override
+    public void put(Object key, Object value) {
+        local.put(key, value);
+        shared.put(key, value);
+    }
+
+    @Override
+    public void evict(Object key) {
+        local.evict(key);
+        shared.evict(key);
+    }
+
+    @Override
+    public void clear() {
+        local.clear();
+        shared.clear();
+    }
+}
@@ -0,0 +1,79 @@
+package org.example.ecommerce.config;
+
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.stats.ConcurrentStatsCounter;
+import com.github.benmanes.caffeine.cache.stats.StatsCounter;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import org.example.ecommerce.cache.EarlyRefreshCaffeineCache;
+import org.example.ecommerce.cache.ProductCache;
+import org.example.ecommerce.cache.TieredCache;
+import org.example.ecommerce.mapper.ProductMapper;
+import org.example.ecommerce.repository.ProductRepository;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.actuate.metrics.cache.CacheMeterBinderProvider;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
+import org.springframework.cache.caffeine.CaffeineCache;
+import org.springframework.cache.concurrent.ConcurrentMapCache;
+import org.springframework.cache.support.SimpleCacheManager;
+import org.springframework.cache.transaction.TransactionAwareCacheDecorator;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import java.time.Duration;
+import java.util.List;
+
+@Configuration
+public class CacheConfig {
+
+    @Bean
+    public CacheManager cacheManager(@Value("${app.cache.products.spec}") String productsSpec,
+                                     @Value("${app.cache.products.ttl}") Duration productsTtl,
+                                     @Value("${app.cache.products.ttl-jitter:0}") double productsTtlJitter,
+                                     @Value("${app.cache.products.early-refresh:0s}") Duration productsEarlyRefresh,
+                                     @Value("${app.cache.pages.spec}") String pagesSpec,
+                                     @Qualifier("productL2Cache") ObjectProvider<Cache> productL2Cache,
+                                     ProductRepository productRepository,
+                                     ProductMapper productMapper) {
+        // The loader only serves background refreshes; misses are loaded by the caller
+        // and recorded in the same stats counter
+        StatsCounter productsStats = new ConcurrentStatsCounter();
+        EarlyRefreshCaffeineCache products = new EarlyRefreshCaffeineCache(ProductCache.PRODUCTS,
+                Caffeine.from(productsSpec)
+                        .expireAfter(EarlyRefreshCaffeineCache.jitteredExpiry(productsTtl, productsTtlJitter))
+                        .recordStats(() -> productsStats)
+                        .build(id -> productRepository.findById((Long) id)
+                                .map(productMapper::toDto)
+                                .orElse(null)),
+                productsEarlyRefresh,
+                productsStats);
+        Cache shared = productL2Cache.getIfAvailable();
+
+        // Puts and evictions wait for the surrounding transaction to commit
+        SimpleCacheManager cacheManager = new SimpleCacheManager();
+        cacheManager.setCaches(List.of(
+                new TransactionAwareCacheDecorator(shared != null ? new TieredCache(products, shared) : products),
+                new TransactionAwareCacheDecorator(
+                        new CaffeineCache(ProductCache.PRODUCT_PAGES, Caffeine.from(pagesSpec).build()))
+        ));
+        return cacheManager;
+    }
+
+    // Shared second tier; this in-process map stands in for a distributed cache
+    // and is replaced by defining another Cache bean with the same name
+    @Bean
+    @ConditionalOnProperty(name = "app.cache.l2.enabled", havingValue = "true")
+    public Cache productL2Cache() {
+        return new ConcurrentMapCache(ProductCache.PRODUCTS + "-l2");
+    }
+
+    // Exports the local tier's hit/miss/load-time statistics like any Caffeine cache
+    @Bean
+    public CacheMeterBinderProvider<TieredCache> tieredCacheMeterBinderProvider() {
+        return (cache, tags) -> new CaffeineCacheMetrics<>(
+                cache.getLocal().getNativeCache(), cache.getName(), tags);
+    }
+}
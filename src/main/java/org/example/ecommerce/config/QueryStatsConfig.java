@@ -0,0 +1,75 @@
+package org.example.ecommerce.config;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import net.ttddyy.dsproxy.support.ProxyDataSourceBuilder;
+import org.example.ecommerce.monitoring.QueryStatsCallableInterceptor;
+import org.example.ecommerce.monitoring.QueryStatsFilter;
+import org.example.ecommerce.monitoring.QueryStatsListener;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.web.servlet.FilterRegistrationBean;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.Ordered;
+import org.springframework.web.servlet.config.annotation.AsyncSupportConfigurer;
+import org.springframework.web.servlet.config.annotation.WebMvcConfigurer;
+
+import javax.sql.DataSource;
+import java.time.Duration;
+
+@Configuration
+@ConditionalOnProperty(name = "app.query-stats.enabled", havingValue = "true", matchIfMissing = true)
+public class QueryStatsConfig {
+
+    @Bean
+    public QueryStatsListener queryStatsListener(
+            MeterRegistry meterRegistry,
+            @Value("${app.query-stats.slow-query:200ms}") Duration slowQuery) {
+        return new QueryStatsListener(slowQuery, meterRegistry);
+    }
+
+    // Wraps the pool rather than replacing it, so Hikari and its metrics stay as they are;
+    // the listener is looked up lazily because post-processors are created before other beans
+    @Bean
+    public static BeanPostProcessor queryStatsDataSourcePostProcessor(ObjectProvider<QueryStatsListener> listener) {
+        return new BeanPostProcessor() {
+            @Override
+            public Object postProcessAfterInitialization(Object bean, String beanName) {
+                if (bean instanceof DataSource dataSource) {
+                    return ProxyDataSourceBuilder.create(dataSource)
+                            .name(beanName)
+                            .listener(listener.getObject())
+                            .build();
+                }
+                return bean;
+            }
+        };
+    }
+
+    // Streaming exports and Callable handlers run on the MVC async executor, outside the filter
+    @Bean
+    public WebMvcConfigurer queryStatsAsyncConfigurer() {
+        return new WebMvcConfigurer() {
+            @Override
+            public void configureAsyncSupport(AsyncSupportConfigurer configurer) {
+                configurer.registerCallableInterceptors(new QueryStatsCallableInterceptor());
+            }
+        };
+    }
+
+    // Runs first so the statements of every later filter and the whole async dispatch are counted
+    @Bean
+    public FilterRegistrationBean<QueryStatsFilter> queryStatsFilter(
+            MeterRegistry meterRegistry,
+            @Value("${app.query-stats.sample-rate:1.0}") double sampleRate,
+            @Value("${app.query-stats.max-statements:20}") long maxStatements,
+            @Value("${app.query-stats.max-db-time:500ms}") Duration maxDbTime,
+            @Value("${app.query-stats.repeated-statement-threshold:10}") long repeatedStatementThreshold) {
+        FilterRegistrationBean<QueryStatsFilter> registration = new FilterRegistrationBean<>(
+                new QueryStatsFilter(meterRegistry, sampleRate, maxStatements, maxDbTime, repeatedStatementThreshold));
+        registration.setOrder(Ordered.HIGHEST_PRECEDENCE + 1);
+        return registration;
+    }
+}
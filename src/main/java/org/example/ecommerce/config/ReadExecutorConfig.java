@@ -0,0 +1,28 @@
+package org.example.ecommerce.config;
+
+import org.example.ecommerce.monitoring.QueryStats;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+
+@Configuration
+public class ReadExecutorConfig {
+
+    // Runs the blocking JPA work behind the async read endpoints. Sized to the
+    // connection pool: more threads would only queue inside Hikari, so excess
+    // requests wait here in a bounded queue and are rejected beyond it
+    @Bean
+    public ThreadPoolTaskExecutor productReadExecutor(
+            @Value("${app.read-executor.pool-size:${spring.datasource.hikari.maximum-pool-size:10}}") int poolSize,
+            @Value("${app.read-executor.queue-capacity:1000}") int queueCapacity) {
+        ThreadPoolTaskExecutor executor = new ThreadPoolTaskExecutor();
+        executor.setCorePoolSize(poolSize);
+        executor.setMaxPoolSize(poolSize);
+        executor.setQueueCapacity(queueCapacity);
+        executor.setThreadNamePrefix("product-read-");
+        // Statements run for a request on this pool count towards that request
+        executor.setTaskDecorator(QueryStats::propagate);
+        return executor;
+    }
+}
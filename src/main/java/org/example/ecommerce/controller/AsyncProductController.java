@@ -0,0 +1,68 @@
+package org.example.ecommerce.controller;
+
+import jakarta.validation.constraints.Max;
+import jakarta.validation.constraints.Min;
+import org.example.ecommerce.cache.ProductCache;
+import org.example.ecommerce.dto.PagedResponse;
+import org.example.ecommerce.dto.ProductDTO;
+import org.example.ecommerce.dto.ProductSearchCriteria;
+import org.example.ecommerce.service.ProductService;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.core.task.AsyncTaskExecutor;
+import org.springframework.data.domain.Sort;
+import org.springframework.validation.annotation.Validated;
+import org.springframework.web.bind.annotation.*;
+
+import java.util.concurrent.CompletableFuture;
+
+/**
+ * Read-only product endpoints served through servlet async processing: the
+ * Tomcat thread is released while the query runs on {@code productReadExecutor},
+ * so slow reads hold a bounded pool of workers instead of request threads.
+ */
+@RestController
+@RequestMapping("/api/v1/async/products")
+@Validated
+public class AsyncProductController {
+    private final ProductService productService;
+    private final ProductCache productCache;
+    private final AsyncTaskExecutor readExecutor;
+
+    public AsyncProductController(ProductService productService,
+                                  ProductCache productCache,
+                                  @Qualifier("productReadExecutor") AsyncTaskExecutor readExecutor) {
+        this.productService = productService;
+        this.productCache = productCache;
+        this.readExecutor = readExecutor;
+    }
+
+    @GetMapping
+    public CompletableFuture<PagedResponse<ProductDTO>> getAllProducts(
+            @RequestParam(defaultValue = "0") @Min(0) int page,
+            @RequestParam(defaultValue = "20") @Min(1) @Max(100) int size,
+            @RequestParam(defaultValue = "id") String sortBy,
+            @RequestParam(defaultValue = "asc") String direction) {
+        return CompletableFuture.supplyAsync(
+                () -> productService.getAllProducts(page, size, sortBy, direction), readExecutor);
+    }
+
+    @GetMapping("/search")
+    public CompletableFuture<PagedResponse<ProductDTO>> searchProducts(
+            @ModelAttribute ProductSearchCriteria criteria,
+            @RequestParam(defaultValue = "0") int page,
+            @RequestParam(defaultValue = "20") int size,
+            Sort sort) {
+        return CompletableFuture.supplyAsync(
+                () -> productService.searchProducts(criteria, page, size, sort), readExecutor);
+    }
+
+    @GetMapping("/{id}")
+    public CompletableFuture<ProductDTO> getProduct(@PathVariable Long id) {
+        // Cache hits are answered without a hand-off to the read executor
+        ProductDTO cached = productCache.get(id);
+        if (cached != null) {
+            return CompletableFuture.completedFuture(cached);
+        }
+        return CompletableFuture.supplyAsync(() -> productService.getProduct(id), readExecutor);
+    }
+}
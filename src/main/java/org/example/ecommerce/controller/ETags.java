@@ -0,0 +1,74 @@
+package org.example.ecommerce.controller;
+
+import org.example.ecommerce.dto.OrderDTO;
+import org.example.ecommerce.dto.OrderItemDTO;
+import org.example.ecommerce.dto.PagedResponse;
+import org.example.ecommerce.dto.ProductDTO;
+import org.springframework.util.DigestUtils;
+
+import java.nio.charset.StandardCharsets;
+
+/**
+ * Strong ETags for the read endpoints, computed from the DTOs rather than from
+ * the serialized body, so a matching {@code If-None-Match} is answered with 304
+ * before anything is written.
+ * <p>
+ * A product's tag is its id and {@code @Version}, which moves on every change
+ * including stock. Pages hash the paging metadata with each product's id and
+ * version. Orders have no version column and embed current product names, so
+ * their tags hash the fields they show.
+ */
+final class ETags {
+    private ETags() {
+    }
+
+    static String product(ProductDTO product) {
+        return product.getId() + "-" + product.getVersion();
+    }
+
+    static String productPage(PagedResponse<ProductDTO> page) {
+        StringBuilder state = pageState(page);
+        for (ProductDTO product : page.getContent()) {
+            state.append(product.getId()).append('-').append(product.getVersion()).append(',');
+        }
+        return digest(state);
+    }
+
+    static String order(OrderDTO order) {
+        return digest(orderState(new StringBuilder(), order));
+    }
+
+    static String orderPage(PagedResponse<OrderDTO> page) {
+        StringBuilder state = pageState(page);
+        for (OrderDTO order : page.getContent()) {
+            orderState(state, order).append(';');
+        }
+        return digest(state);
+    }
+
+    private static StringBuilder pageState(PagedResponse<?> page) {
+        return new StringBuilder(64 + page.getContent().size() * 16)
+                .append(page.getPageNumber()).append('/')
+                .append(page.getPageSize()).append('/')
+                .append(page.getTotalElements()).append('|');
+    }
+
+    private static StringBuilder orderState(StringBuilder state, OrderDTO order) {
+        state.append(order.getId()).append('|')
+                .append(order.getStatus()).append('|')
+                .append(order.getTotalAmount()).append('|')
+                .append(order.getShippingAddress()).append('|')
+                .append(order.getCreatedAt());
+        for (OrderItemDTO item : order.getItems()) {
+            state.append('|').append(item.getProductId())
+                    .append(',').append(item.getProductName())
+                    .append(',').append(item.getQuantity())
+                    .append(',').append(item.getPrice());
+        }
+        return state;
+    }
+
+    private static String digest(CharSequence state) {
+        return DigestUtils.md5DigestAsHex(state.toString().getBytes(StandardCharsets.UTF_8));
+    }
+}
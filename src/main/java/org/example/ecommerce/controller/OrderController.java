@@ -1,11 +1,18 @@
 package org.example.ecommerce.controller;
 import jakarta.validation.Valid;
 import lombok.extern.slf4j.Slf4j;
+import org.example.ecommerce.dto.BulkStatusUpdateRequest;
+import org.example.ecommerce.dto.BulkStatusUpdateResult;
 import org.example.ecommerce.dto.CreateOrderRequest;
+import org.example.ecommerce.dto.CursorPage;
 import org.example.ecommerce.dto.OrderDTO;
 import org.example.ecommerce.dto.PagedResponse;
 import org.example.ecommerce.entity.OrderStatus;
+import org.example.ecommerce.service.IdempotentOrderService;
 import org.example.ecommerce.service.OrderService;
+import org.example.ecommerce.service.OrderStatusService;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
@@ -13,25 +20,50 @@ import org.springframework.web.bind.annotation.*;
 @RequestMapping("/api/v1/orders")
 @Slf4j
 public class OrderController {
+    static final String IDEMPOTENCY_KEY = "Idempotency-Key";
+    static final String IDEMPOTENT_REPLAYED = "Idempotent-Replayed";
+
     private final OrderService orderService;
+    private final IdempotentOrderService idempotentOrderService;
+    private final OrderStatusService orderStatusService;
+    private final String orderCacheControl;
 
-    public OrderController(OrderService orderService) {
+    public OrderController(OrderService orderService,
+                           IdempotentOrderService idempotentOrderService,
+                           OrderStatusService orderStatusService,
+                           @Value("${app.http.cache-control.orders:private, no-cache}") String orderCacheControl) {
         this.orderService = orderService;
+        this.idempotentOrderService = idempotentOrderService;
+        this.orderStatusService = orderStatusService;
+        this.orderCacheControl = orderCacheControl;
     }
 
+    // With an Idempotency-Key, retries return the first result (flagged by
+    // Idempotent-Replayed) instead of placing the order again
     @PostMapping
     public ResponseEntity<OrderDTO> createOrder(
+            @RequestHeader(value = IDEMPOTENCY_KEY, required = false) String idempotencyKey,
             @Valid @RequestBody CreateOrderRequest request) {
         log.info("POST /api/v1/orders - user: {}", request.getUserId());
-        OrderDTO created = orderService.createOrder(request);
-        return ResponseEntity.status(HttpStatus.CREATED).body(created);
+        if (idempotencyKey == null) {
+            OrderDTO created = orderService.createOrder(request);
+            return ResponseEntity.status(HttpStatus.CREATED).body(created);
+        }
+
+        IdempotentOrderService.Result result = idempotentOrderService.createOrder(idempotencyKey, request);
+        return ResponseEntity.status(HttpStatus.CREATED)
+                .header(IDEMPOTENT_REPLAYED, String.valueOf(result.replayed()))
+                .body(result.order());
     }
 
     @GetMapping("/{id}")
     public ResponseEntity<OrderDTO> getOrder(@PathVariable Long id) {
         log.info("GET /api/v1/orders/{}", id);
         OrderDTO order = orderService.getOrder(id);
-        return ResponseEntity.ok(order);
+        return ResponseEntity.ok()
+                .eTag(ETags.order(order))
+                .header(HttpHeaders.CACHE_CONTROL, orderCacheControl)
+                .body(order);
     }
 
     @GetMapping("/user/{userId}")
@@ -41,6 +73,19 @@ public class OrderController {
             @RequestParam(defaultValue = "10") int size) {
         log.info("GET /api/v1/orders/user/{}", userId);
         PagedResponse<OrderDTO> orders = orderService.getUserOrders(userId, page, size);
+        return ResponseEntity.ok()
+                .eTag(ETags.orderPage(orders))
+                .header(HttpHeaders.CACHE_CONTROL, orderCacheControl)
+                .body(orders);
+    }
+
+    @GetMapping("/user/{userId}/scroll")
+    public ResponseEntity<CursorPage<OrderDTO>> scrollUserOrders(
+            @PathVariable Long userId,
+            @RequestParam(required = false) String after,
+            @RequestParam(defaultValue = "10") int size) {
+        log.info("GET /api/v1/orders/user/{}/scroll", userId);
+        CursorPage<OrderDTO> orders = orderService.scrollUserOrders(userId, after, size);
         return ResponseEntity.ok(orders);
     }
 
@@ -52,4 +97,13 @@ public class OrderController {
         OrderDTO updated = orderService.updateOrderStatus(id, status);
         return ResponseEntity.ok(updated);
     }
+
+    @PatchMapping("/status")
+    public ResponseEntity<BulkStatusUpdateResult> updateOrderStatuses(
+            @Valid @RequestBody BulkStatusUpdateRequest request) {
+        log.info("PATCH /api/v1/orders/status - {} orders, {} -> {}",
+                request.getOrderIds().size(), request.getFrom(), request.getTo());
+        BulkStatusUpdateResult result = orderStatusService.updateStatuses(request);
+        return ResponseEntity.ok(result);
+    }
 }
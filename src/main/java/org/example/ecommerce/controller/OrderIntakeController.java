@@ -0,0 +1,51 @@
+package org.example.ecommerce.controller;
+import jakarta.validation.Valid;
+import lombok.extern.slf4j.Slf4j;
+import org.example.ecommerce.dto.CreateOrderRequest;
+import org.example.ecommerce.dto.OrderIntakeDTO;
+import org.example.ecommerce.service.OrderIntakeService;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+import java.net.URI;
+
+// Async order intake: 202 with a status URL to poll until COMPLETED or REJECTED
+@RestController
+@RequestMapping("/api/v1/order-intake")
+@ConditionalOnProperty(name = "app.orders.async-intake.enabled", havingValue = "true")
+@Slf4j
+public class OrderIntakeController {
+    private final OrderIntakeService orderIntakeService;
+
+    public OrderIntakeController(OrderIntakeService orderIntakeService) {
+        this.orderIntakeService = orderIntakeService;
+    }
+
+    // With an Idempotency-Key, retries get the entry the key first queued
+    // (flagged by Idempotent-Replayed), as for POST /api/v1/orders
+    @PostMapping
+    public ResponseEntity<OrderIntakeDTO> submitOrder(
+            @RequestHeader(value = OrderController.IDEMPOTENCY_KEY, required = false) String idempotencyKey,
+            @Valid @RequestBody CreateOrderRequest request) {
+        log.info("POST /api/v1/order-intake - user: {}", request.getUserId());
+        if (idempotencyKey == null) {
+            OrderIntakeDTO intake = orderIntakeService.submit(request);
+            return ResponseEntity.accepted()
+                    .location(URI.create("/api/v1/order-intake/" + intake.getId()))
+                    .body(intake);
+        }
+
+        OrderIntakeService.Submission submission = orderIntakeService.submit(idempotencyKey, request);
+        return ResponseEntity.accepted()
+                .location(URI.create("/api/v1/order-intake/" + submission.intake().getId()))
+                .header(OrderController.IDEMPOTENT_REPLAYED, String.valueOf(submission.replayed()))
+                .body(submission.intake());
+    }
+
+    @GetMapping("/{id}")
+    public ResponseEntity<OrderIntakeDTO> getIntake(@PathVariable Long id) {
+        log.info("GET /api/v1/order-intake/{}", id);
+        return ResponseEntity.ok(orderIntakeService.getIntake(id));
+    }
+}
@@ -1,18 +1,32 @@
 package org.example.ecommerce.controller;
 
+import jakarta.servlet.http.HttpServletResponse;
 import jakarta.validation.Valid;
 import jakarta.validation.constraints.Max;
 import jakarta.validation.constraints.Min;
 import lombok.extern.slf4j.Slf4j;
 import org.example.ecommerce.dto.CreateProductRequest;
+import org.example.ecommerce.dto.CursorPage;
+import org.example.ecommerce.dto.ImportResult;
 import org.example.ecommerce.dto.PagedResponse;
 import org.example.ecommerce.dto.ProductDTO;
 import org.example.ecommerce.dto.ProductSearchCriteria;
+import org.example.ecommerce.service.CatalogFormat;
+import org.example.ecommerce.service.ProductExportService;
+import org.example.ecommerce.service.ProductImportService;
 import org.example.ecommerce.service.ProductService;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.Sort;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.validation.annotation.Validated;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.async.WebAsyncTask;
+
+import java.io.IOException;
+import java.time.Duration;
+import java.io.InputStream;
 
 @RestController
 @RequestMapping("/api/v1/products")
@@ -20,9 +34,24 @@ import org.springframework.web.bind.annotation.*;
 @Validated
 public class ProductController {
     private final ProductService productService;
+    private final ProductExportService productExportService;
+    private final ProductImportService productImportService;
+    private final String productCacheControl;
+    private final String pageCacheControl;
+    private final Duration exportTimeout;
 
-    public ProductController(ProductService productService) {
+    public ProductController(ProductService productService,
+                             ProductExportService productExportService,
+                             ProductImportService productImportService,
+                             @Value("${app.http.cache-control.product:no-cache}") String productCacheControl,
+                             @Value("${app.http.cache-control.product-pages:no-cache}") String pageCacheControl,
+                             @Value("${app.export.timeout:30m}") Duration exportTimeout) {
         this.productService = productService;
+        this.productExportService = productExportService;
+        this.productImportService = productImportService;
+        this.productCacheControl = productCacheControl;
+        this.pageCacheControl = pageCacheControl;
+        this.exportTimeout = exportTimeout;
     }
 
     @GetMapping
@@ -34,6 +63,21 @@ public class ProductController {
 
         log.info("GET /api/v1/products - page: {}, size: {}", page, size);
         PagedResponse<ProductDTO> response = productService.getAllProducts(page, size, sortBy, direction);
+        return ResponseEntity.ok()
+                .eTag(ETags.productPage(response))
+                .header(HttpHeaders.CACHE_CONTROL, pageCacheControl)
+                .body(response);
+    }
+
+    @GetMapping("/scroll")
+    public ResponseEntity<CursorPage<ProductDTO>> scrollProducts(
+            @RequestParam(required = false) String after,
+            @RequestParam(defaultValue = "20") @Min(1) @Max(100) int size,
+            @RequestParam(defaultValue = "id") String sortBy,
+            @RequestParam(defaultValue = "asc") String direction) {
+
+        log.info("GET /api/v1/products/scroll - size: {}", size);
+        CursorPage<ProductDTO> response = productService.scrollProducts(after, size, sortBy, direction);
         return ResponseEntity.ok(response);
     }
 
@@ -41,18 +85,58 @@ public class ProductController {
     public ResponseEntity<PagedResponse<ProductDTO>> searchProducts(
             @ModelAttribute ProductSearchCriteria criteria,
             @RequestParam(defaultValue = "0") int page,
-            @RequestParam(defaultValue = "20") int size) {
+            @RequestParam(defaultValue = "20") int size,
+            Sort sort) {
 
-        log.info("GET /api/v1/products/search - criteria: {}", criteria);
-        PagedResponse<ProductDTO> response = productService.searchProducts(criteria, page, size);
-        return ResponseEntity.ok(response);
+        log.info("GET /api/v1/products/search - name: {}, category: {}, page: {}, size: {}",
+                criteria.getName(), criteria.getCategory(), page, size);
+        PagedResponse<ProductDTO> response = productService.searchProducts(criteria, page, size, sort);
+        return ResponseEntity.ok()
+                .eTag(ETags.productPage(response))
+                .header(HttpHeaders.CACHE_CONTROL, pageCacheControl)
+                .body(response);
+    }
+
+    // Bulk create from an NDJSON or CSV upload; invalid rows are reported, not fatal
+    @PostMapping("/import")
+    public ResponseEntity<ImportResult> importProducts(
+            @RequestParam(defaultValue = "ndjson") String format,
+            InputStream body) throws IOException {
+
+        log.info("POST /api/v1/products/import - format: {}", format);
+        ImportResult result = productImportService.importProducts(CatalogFormat.from(format), body);
+        return ResponseEntity.ok(result);
+    }
+
+    // Whole active catalog as NDJSON or CSV in id order; resume with afterId=<last id received>.
+    // Gzip is negotiated by the server compression settings. Written from the MVC async executor
+    // like a StreamingResponseBody, but as a WebAsyncTask so only this endpoint gets the long timeout
+    @GetMapping("/export")
+    public WebAsyncTask<Void> exportProducts(
+            @RequestParam(defaultValue = "ndjson") String format,
+            @RequestParam(defaultValue = "0") @Min(0) long afterId,
+            HttpServletResponse response) {
+
+        log.info("GET /api/v1/products/export - format: {}, afterId: {}", format, afterId);
+        CatalogFormat exportFormat = CatalogFormat.from(format);
+        response.setContentType(exportFormat.getContentType());
+        return new WebAsyncTask<>(exportTimeout.toMillis(), () -> {
+            productExportService.export(afterId, exportFormat, response.getOutputStream());
+            response.flushBuffer();
+            return null;
+        });
     }
 
+    // A matching If-None-Match gets 304 without a body; the product normally comes
+    // from the cache, so revalidation costs no query either
     @GetMapping("/{id}")
     public ResponseEntity<ProductDTO> getProduct(@PathVariable Long id) {
         log.info("GET /api/v1/products/{}", id);
         ProductDTO product = productService.getProduct(id);
-        return ResponseEntity.ok(product);
+        return ResponseEntity.ok()
+                .eTag(ETags.product(product))
+                .header(HttpHeaders.CACHE_CONTROL, productCacheControl)
+                .body(product);
     }
 
     @PostMapping
@@ -0,0 +1,69 @@
+package org.example.ecommerce.controller;
+import lombok.extern.slf4j.Slf4j;
+import org.example.ecommerce.dto.CategorySales;
+import org.example.ecommerce.dto.DailySales;
+import org.example.ecommerce.dto.StatusSales;
+import org.example.ecommerce.service.SalesStatsService;
+import org.example.ecommerce.stats.OrderStatsAggregator;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+import java.time.LocalDate;
+import java.util.List;
+
+// Sales dashboard; ranges are inclusive order creation days and default to the last 30 days
+@RestController
+@RequestMapping("/api/v1/stats/sales")
+@Slf4j
+public class SalesStatsController {
+    private static final int DEFAULT_DAYS = 30;
+
+    private final SalesStatsService salesStatsService;
+    private final OrderStatsAggregator orderStatsAggregator;
+
+    public SalesStatsController(SalesStatsService salesStatsService,
+                                OrderStatsAggregator orderStatsAggregator) {
+        this.salesStatsService = salesStatsService;
+        this.orderStatsAggregator = orderStatsAggregator;
+    }
+
+    @GetMapping("/by-status")
+    public ResponseEntity<List<StatusSales>> getSalesByStatus(
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate from,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate to) {
+        log.info("GET /api/v1/stats/sales/by-status - from: {}, to: {}", from, to);
+        LocalDate end = to != null ? to : LocalDate.now();
+        return ResponseEntity.ok(salesStatsService.getSalesByStatus(start(from, end), end));
+    }
+
+    @GetMapping("/by-day")
+    public ResponseEntity<List<DailySales>> getSalesByDay(
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate from,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate to) {
+        log.info("GET /api/v1/stats/sales/by-day - from: {}, to: {}", from, to);
+        LocalDate end = to != null ? to : LocalDate.now();
+        return ResponseEntity.ok(salesStatsService.getSalesByDay(start(from, end), end));
+    }
+
+    @GetMapping("/by-category")
+    public ResponseEntity<List<CategorySales>> getSalesByCategory(
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate from,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate to) {
+        log.info("GET /api/v1/stats/sales/by-category - from: {}, to: {}", from, to);
+        LocalDate end = to != null ? to : LocalDate.now();
+        return ResponseEntity.ok(salesStatsService.getSalesByCategory(start(from, end), end));
+    }
+
+    // Recomputes the aggregates from the orders, e.g. after a crash lost unflushed deltas
+    @PostMapping("/rebuild")
+    public ResponseEntity<Void> rebuild() {
+        log.info("POST /api/v1/stats/sales/rebuild");
+        orderStatsAggregator.rebuild();
+        return ResponseEntity.noContent().build();
+    }
+
+    private static LocalDate start(LocalDate from, LocalDate end) {
+        return from != null ? from : end.minusDays(DEFAULT_DAYS - 1);
+    }
+}
@@ -0,0 +1,25 @@
+package org.example.ecommerce.dto;
+import jakarta.validation.constraints.NotEmpty;
+import jakarta.validation.constraints.NotNull;
+import jakarta.validation.constraints.Size;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import org.example.ecommerce.entity.OrderStatus;
+
+import java.util.List;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class BulkStatusUpdateRequest {
+    @NotEmpty(message = "At least one order ID is required")
+    @Size(max = 50000, message = "At most 50000 orders per request")
+    private List<@NotNull Long> orderIds;
+
+    @NotNull(message = "Current status is required")
+    private OrderStatus from;
+
+    @NotNull(message = "New status is required")
+    private OrderStatus to;
+}
@@ -0,0 +1,19 @@
+package org.example.ecommerce.dto;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import org.example.ecommerce.entity.OrderStatus;
+
+import java.util.List;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class BulkStatusUpdateResult {
+    private OrderStatus from;
+    private OrderStatus to;
+    private long requested;
+    private long updated;
+    // One entry per distinct requested id, in request order
+    private List<StatusUpdateOutcome> outcomes;
+}
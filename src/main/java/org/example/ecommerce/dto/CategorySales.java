@@ -0,0 +1,16 @@
+package org.example.ecommerce.dto;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.math.BigDecimal;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class CategorySales {
+    private String category;
+    private Long orders;
+    private Long units;
+    private BigDecimal revenue;
+}
@@ -0,0 +1,16 @@
+package org.example.ecommerce.dto;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class DailySales {
+    private LocalDate day;
+    private Long orders;
+    private BigDecimal revenue;
+}
@@ -0,0 +1,17 @@
+package org.example.ecommerce.dto;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class ImportResult {
+    private long received;
+    private long imported;
+    private long failed;
+    // Capped; failed holds the full count
+    private List<ImportRowError> errors;
+}
@@ -17,4 +17,6 @@ public class ProductDTO {
     private String category;
     private String imageUrl;
     private Boolean active;
+    // Entity @Version; the product's ETag
+    private Long version;
 }
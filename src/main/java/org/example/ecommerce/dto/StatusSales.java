@@ -0,0 +1,16 @@
+package org.example.ecommerce.dto;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import org.example.ecommerce.entity.OrderStatus;
+
+import java.math.BigDecimal;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class StatusSales {
+    private OrderStatus status;
+    private Long orders;
+    private BigDecimal revenue;
+}
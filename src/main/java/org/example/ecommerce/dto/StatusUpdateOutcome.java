@@ -0,0 +1,19 @@
+package org.example.ecommerce.dto;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import org.example.ecommerce.entity.OrderStatus;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class StatusUpdateOutcome {
+    private Long orderId;
+    private Result result;
+    // Status the order is in afterwards; null when not found
+    private OrderStatus status;
+
+    public enum Result {
+        UPDATED, NOT_FOUND, STATUS_MISMATCH
+    }
+}
@@ -0,0 +1,48 @@
+package org.example.ecommerce.entity;
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.io.Serializable;
+import java.math.BigDecimal;
+import java.time.LocalDate;
+
+// Orders, units and item revenue per creation day, product category and current order status
+@Entity
+@Table(name = "category_daily_stats")
+@IdClass(CategoryDailyStats.Key.class)
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class CategoryDailyStats {
+    @Id
+    @Column(name = "stats_date")
+    private LocalDate day;
+
+    @Id
+    private String category;
+
+    @Id
+    @Enumerated(EnumType.STRING)
+    private OrderStatus status;
+
+    // Orders with at least one item in the category
+    @Column(nullable = false)
+    private Long orderCount;
+
+    @Column(nullable = false)
+    private Long units;
+
+    @Column(nullable = false, precision = 38, scale = 2)
+    private BigDecimal revenue;
+
+    @Data
+    @NoArgsConstructor
+    @AllArgsConstructor
+    public static class Key implements Serializable {
+        private LocalDate day;
+        private String category;
+        private OrderStatus status;
+    }
+}
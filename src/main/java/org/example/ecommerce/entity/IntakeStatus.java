@@ -0,0 +1,5 @@
+package org.example.ecommerce.entity;
+
+public enum IntakeStatus {
+    QUEUED, PROCESSING, COMPLETED, REJECTED
+}
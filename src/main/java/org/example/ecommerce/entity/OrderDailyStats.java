@@ -0,0 +1,40 @@
+package org.example.ecommerce.entity;
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.io.Serializable;
+import java.math.BigDecimal;
+import java.time.LocalDate;
+
+// Order count and revenue per creation day and current status, kept up to date by OrderStatsAggregator
+@Entity
+@Table(name = "order_daily_stats")
+@IdClass(OrderDailyStats.Key.class)
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class OrderDailyStats {
+    @Id
+    @Column(name = "stats_date")
+    private LocalDate day;
+
+    @Id
+    @Enumerated(EnumType.STRING)
+    private OrderStatus status;
+
+    @Column(nullable = false)
+    private Long orderCount;
+
+    @Column(nullable = false, precision = 38, scale = 2)
+    private BigDecimal revenue;
+
+    @Data
+    @NoArgsConstructor
+    @AllArgsConstructor
+    public static class Key implements Serializable {
+        private LocalDate day;
+        private OrderStatus status;
+    }
+}
@@ -0,0 +1,63 @@
+package org.example.ecommerce.entity;
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+
+// Durable queue entry for an accepted but not yet processed order
+@Entity
+@Table(name = "order_intakes", indexes = {
+        @Index(name = "idx_order_intakes_status_claimed", columnList = "status, claimed_at")
+}, uniqueConstraints = {
+        @UniqueConstraint(name = "uk_order_intakes_idempotency_key", columnNames = "idempotency_key")
+})
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class OrderIntake {
+    @Id
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "order_intakes_seq")
+    @SequenceGenerator(name = "order_intakes_seq", sequenceName = "order_intakes_seq", allocationSize = 50)
+    private Long id;
+
+    // The CreateOrderRequest as received, in JSON
+    @Column(nullable = false, columnDefinition = "text")
+    private String payload;
+
+    // Client's Idempotency-Key, if sent; unique, so a key queues at most one order
+    @Column(name = "idempotency_key", length = 255)
+    private String idempotencyKey;
+
+    // SHA-256 of the payload, to refuse a key reused for a different order
+    @Column(length = 64)
+    private String requestHash;
+
+    @Enumerated(EnumType.STRING)
+    @Column(nullable = false, length = 20)
+    private IntakeStatus status;
+
+    // Set when the claiming worker's order commits
+    private Long orderId;
+
+    @Column(length = 1000)
+    private String error;
+
+    @Column(nullable = false)
+    private Integer attempts;
+
+    // Identifies the worker lease; completion only counts for the current holder
+    @Column(length = 36)
+    private String claimToken;
+
+    @Column(name = "claimed_at")
+    private LocalDateTime claimedAt;
+
+    @Column(nullable = false)
+    private LocalDateTime createdAt;
+
+    private LocalDateTime completedAt;
+}
@@ -7,14 +7,17 @@ import lombok.NoArgsConstructor;
 import java.math.BigDecimal;
 
 @Entity
-@Table(name = "order_items")
+@Table(name = "order_items", indexes = {
+        @Index(name = "idx_order_items_stock_applied", columnList = "stock_applied")
+})
 @Data
 @NoArgsConstructor
 @AllArgsConstructor
 @Builder
 public class OrderItem {
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "order_items_seq")
+    @SequenceGenerator(name = "order_items_seq", sequenceName = "order_items_seq", allocationSize = 50)
     private Long id;
 
     @ManyToOne(fetch = FetchType.LAZY)
@@ -30,4 +33,8 @@ public class OrderItem {
 
     @Column(nullable = false)
     private BigDecimal price;
+
+    // False while the in-memory inventory ledger still owes this quantity to products.stock
+    @Column(nullable = false)
+    private Boolean stockApplied;
 }
@@ -16,15 +16,21 @@ import java.util.List;
 @Entity
 @Table(name = "products", indexes = {
         @Index(name = "idx_category", columnList = "category"),
-        @Index(name = "idx_price", columnList = "price")
+        @Index(name = "idx_price", columnList = "price"),
+        // Serve the common search filters (active + category + price range) from one index
+        @Index(name = "idx_active_category_price", columnList = "active, category, price"),
+        @Index(name = "idx_active_price", columnList = "active, price")
 })
 @Data
 @NoArgsConstructor
 @AllArgsConstructor
 @Builder
 public class Product {
+    // Pooled sequence: ids are handed out 50 at a time without a round trip,
+    // which lets Hibernate batch inserts (IDENTITY forces one insert per row)
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "products_seq")
+    @SequenceGenerator(name = "products_seq", sequenceName = "products_seq", allocationSize = 50)
     private Long id;
 
     @Column(nullable = false)
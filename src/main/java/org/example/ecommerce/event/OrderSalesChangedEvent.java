@@ -0,0 +1,14 @@
+package org.example.ecommerce.event;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import org.example.ecommerce.stats.SalesDelta;
+
+import java.util.List;
+
+// Published when orders are placed or change status, with what that moves between statistics buckets
+@Data
+@AllArgsConstructor
+public class OrderSalesChangedEvent {
+    private List<SalesDelta> deltas;
+}
@@ -0,0 +1,12 @@
+package org.example.ecommerce.event;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import org.example.ecommerce.dto.ProductDTO;
+
+// Published by ProductService whenever a product is created, updated or soft deleted
+@Data
+@AllArgsConstructor
+public class ProductChangedEvent {
+    private ProductDTO product;
+}
@@ -0,0 +1,14 @@
+package org.example.ecommerce.event;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import org.example.ecommerce.dto.ProductDTO;
+
+import java.util.List;
+
+// Published by ProductImportService once per committed import batch
+@Data
+@AllArgsConstructor
+public class ProductsImportedEvent {
+    private List<ProductDTO> products;
+}
@@ -0,0 +1,41 @@
+package org.example.ecommerce.mapper;
+
+import org.example.ecommerce.dto.OrderDTO;
+import org.example.ecommerce.dto.OrderItemDTO;
+import org.example.ecommerce.entity.Order;
+import org.example.ecommerce.entity.OrderItem;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.List;
+
+@Component
+public class OrderMapper {
+
+    public OrderDTO toDto(Order order) {
+        OrderDTO dto = new OrderDTO();
+        dto.setId(order.getId());
+        dto.setUserId(order.getUser().getId());
+        dto.setTotalAmount(order.getTotalAmount());
+        dto.setStatus(order.getStatus());
+        dto.setShippingAddress(order.getShippingAddress());
+        dto.setCreatedAt(order.getCreatedAt());
+
+        List<OrderItem> items = order.getItems();
+        List<OrderItemDTO> itemDTOs = new ArrayList<>(items.size());
+        for (OrderItem item : items) {
+            itemDTOs.add(toDto(item));
+        }
+        dto.setItems(itemDTOs);
+        return dto;
+    }
+
+    public OrderItemDTO toDto(OrderItem item) {
+        return new OrderItemDTO(
+                item.getProduct().getId(),
+                item.getProduct().getName(),
+                item.getQuantity(),
+                item.getPrice()
+        );
+    }
+}
@@ -0,0 +1,24 @@
+package org.example.ecommerce.mapper;
+
+import org.example.ecommerce.dto.ProductDTO;
+import org.example.ecommerce.entity.Product;
+import org.springframework.stereotype.Component;
+
+// Plain field copies: no reflection or type-map lookups on the response path
+@Component
+public class ProductMapper {
+
+    public ProductDTO toDto(Product product) {
+        ProductDTO dto = new ProductDTO();
+        dto.setId(product.getId());
+        dto.setName(product.getName());
+        dto.setDescription(product.getDescription());
+        dto.setPrice(product.getPrice());
+        dto.setStock(product.getStock());
+        dto.setCategory(product.getCategory());
+        dto.setImageUrl(product.getImageUrl());
+        dto.setActive(product.getActive());
+        dto.setVersion(product.getVersion());
+        return dto;
+    }
+}
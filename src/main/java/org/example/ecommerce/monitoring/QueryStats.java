@@ -0,0 +1,192 @@
+package org.example.ecommerce.monitoring;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * SQL statements executed, and the time spent executing them, within one unit
+ * of work: an HTTP request, or a block of code under test.
+ * <p>
+ * Stats are bound to the current thread with {@link #open()} and filled in by
+ * {@link QueryStatsListener} for every statement that passes through the proxied
+ * DataSource. Scopes nest; a statement counts towards the innermost scope and
+ * all the scopes around it, so a test can wrap a MockMvc call and still see the
+ * statements the request filter counted. Work handed to another thread is
+ * counted only if the task was wrapped with {@link #propagate(Runnable)}, and
+ * stats opened earlier can be made current again with {@link #resume(QueryStats)}.
+ * <p>
+ * Test usage:
+ * <pre>{@code
+ * try (QueryStats.Scope scope = QueryStats.open()) {
+ *     mockMvc.perform(get("/api/v1/orders/user/{id}", userId));
+ *     scope.stats().assertStatementsAtMost(3);
+ * }
+ * }</pre>
+ */
+public final class QueryStats {
+    private static final ThreadLocal<QueryStats> CURRENT = new ThreadLocal<>();
+
+    private final QueryStats parent;
+    private final LongAdder statements = new LongAdder();
+    private final LongAdder nanos = new LongAdder();
+    private final Map<String, AtomicLong> executionsBySql = new ConcurrentHashMap<>();
+
+    private QueryStats(QueryStats parent) {
+        this.parent = parent;
+    }
+
+    /**
+     * Starts counting on the current thread until the returned scope is closed.
+     */
+    public static Scope open() {
+        QueryStats previous = CURRENT.get();
+        QueryStats stats = new QueryStats(previous);
+        CURRENT.set(stats);
+        return new Scope(stats, previous);
+    }
+
+    /**
+     * Counts on the current thread towards {@code stats} again, e.g. in the
+     * async dispatch of a request, until the returned scope is closed.
+     */
+    public static Scope resume(QueryStats stats) {
+        QueryStats previous = CURRENT.get();
+        CURRENT.set(stats);
+        return new Scope(stats, previous);
+    }
+
+    /**
+     * Runs {@code work} in a fresh scope and returns what it executed.
+     */
+    public static QueryStats measure(Runnable work) {
+        try (Scope scope = open()) {
+            work.run();
+            return scope.stats();
+        }
+    }
+
+    static QueryStats current() {
+        return CURRENT.get();
+    }
+
+    /**
+     * Wraps {@code task} so statements it runs on another thread count towards
+     * the scope that is current now.
+     */
+    public static Runnable propagate(Runnable task) {
+        QueryStats stats = CURRENT.get();
+        if (stats == null) {
+            return task;
+        }
+        return () -> {
+            QueryStats previous = CURRENT.get();
+            CURRENT.set(stats);
+            try {
+                task.run();
+            } finally {
+                if (previous != null) {
+                    CURRENT.set(previous);
+                } else {
+                    CURRENT.remove();
+                }
+            }
+        };
+    }
+
+    void record(String sql, long elapsedNanos) {
+        for (QueryStats stats = this; stats != null; stats = stats.parent) {
+            stats.statements.increment();
+            stats.nanos.add(elapsedNanos);
+            stats.executionsBySql.computeIfAbsent(sql, key -> new AtomicLong()).incrementAndGet();
+        }
+    }
+
+    public long getStatements() {
+        return statements.sum();
+    }
+
+    public long getNanos() {
+        return nanos.sum();
+    }
+
+    public long getMillis() {
+        return nanos.sum() / 1_000_000;
+    }
+
+    /**
+     * The statement executed most often, with its count; a high count for a
+     * single statement usually means an N+1 lazy-loading pattern.
+     */
+    public Map.Entry<String, Long> getMostRepeated() {
+        Map.Entry<String, Long> top = null;
+        for (Map.Entry<String, AtomicLong> entry : executionsBySql.entrySet()) {
+            long count = entry.getValue().get();
+            if (top == null || count > top.getValue()) {
+                top = Map.entry(entry.getKey(), count);
+            }
+        }
+        return top;
+    }
+
+    public QueryStats assertStatementsAtMost(long max) {
+        long executed = getStatements();
+        if (executed > max) {
+            throw new AssertionError("Expected at most " + max + " SQL statements but " + executed
+                    + " were executed:" + describe());
+        }
+        return this;
+    }
+
+    public QueryStats assertStatements(long expected) {
+        long executed = getStatements();
+        if (executed != expected) {
+            throw new AssertionError("Expected " + expected + " SQL statements but " + executed
+                    + " were executed:" + describe());
+        }
+        return this;
+    }
+
+    private String describe() {
+        List<Map.Entry<String, AtomicLong>> entries = new ArrayList<>(executionsBySql.entrySet());
+        entries.sort(Collections.reverseOrder(Map.Entry.comparingByValue(
+                (a, b) -> Long.compare(a.get(), b.get()))));
+        StringBuilder description = new StringBuilder();
+        for (Map.Entry<String, AtomicLong> entry : entries) {
+            description.append("\n  ").append(entry.getValue().get()).append("x ").append(entry.getKey());
+        }
+        return description.toString();
+    }
+
+    @Override
+    public String toString() {
+        return getStatements() + " statements in " + getMillis() + " ms";
+    }
+
+    public static final class Scope implements AutoCloseable {
+        private final QueryStats stats;
+        private final QueryStats previous;
+
+        private Scope(QueryStats stats, QueryStats previous) {
+            this.stats = stats;
+            this.previous = previous;
+        }
+
+        public QueryStats stats() {
+            return stats;
+        }
+
+        @Override
+        public void close() {
+            if (previous != null) {
+                CURRENT.set(previous);
+            } else {
+                CURRENT.remove();
+            }
+        }
+    }
+}
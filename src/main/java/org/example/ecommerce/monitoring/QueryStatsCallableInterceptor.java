@@ -0,0 +1,35 @@
+package org.example.ecommerce.monitoring;
+
+import jakarta.servlet.http.HttpServletRequest;
+import org.springframework.web.context.request.NativeWebRequest;
+import org.springframework.web.context.request.async.CallableProcessingInterceptor;
+
+import java.util.concurrent.Callable;
+
+/**
+ * Makes a request's {@link QueryStats} current on the MVC async executor while
+ * its {@code Callable} or {@code StreamingResponseBody} runs, so the statements
+ * of a streaming export count towards the request that started it. Pre- and
+ * post-processing run on the executor thread around the task.
+ */
+public class QueryStatsCallableInterceptor implements CallableProcessingInterceptor {
+    private static final ThreadLocal<QueryStats.Scope> SCOPE = new ThreadLocal<>();
+
+    @Override
+    public <T> void preProcess(NativeWebRequest request, Callable<T> task) {
+        HttpServletRequest servletRequest = request.getNativeRequest(HttpServletRequest.class);
+        QueryStats stats = servletRequest != null ? QueryStatsFilter.stats(servletRequest) : null;
+        if (stats != null) {
+            SCOPE.set(QueryStats.resume(stats));
+        }
+    }
+
+    @Override
+    public <T> void postProcess(NativeWebRequest request, Callable<T> task, Object concurrentResult) {
+        QueryStats.Scope scope = SCOPE.get();
+        if (scope != null) {
+            SCOPE.remove();
+            scope.close();
+        }
+    }
+}
@@ -0,0 +1,179 @@
+package org.example.ecommerce.monitoring;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.servlet.AsyncEvent;
+import jakarta.servlet.AsyncListener;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.web.filter.OncePerRequestFilter;
+import org.springframework.web.servlet.HandlerMapping;
+
+import java.io.IOException;
+import java.time.Duration;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Counts the SQL statements and database time of each HTTP request and
+ * publishes them per endpoint as {@code http.server.requests.statements} and
+ * {@code http.server.requests.db.time}. Requests over the statement or time
+ * budget, or repeating one statement suspiciously often, are logged with the
+ * offending SQL and counted in {@code http.server.requests.flagged}.
+ * <p>
+ * Async requests are finished when the async work completes. The async
+ * dispatch counts towards the stats opened by the initial one, and statements
+ * run on the read executor, or by streaming exports on the MVC async executor
+ * (see {@link QueryStatsCallableInterceptor}), are included because those tasks
+ * carry the request's stats. Meters are
+ * registered once per endpoint, so reporting a request is a map lookup and
+ * plain meter updates.
+ */
+@Slf4j
+public class QueryStatsFilter extends OncePerRequestFilter {
+    private static final String STATS_ATTRIBUTE = QueryStatsFilter.class.getName() + ".STATS";
+
+    private final ConcurrentHashMap<Endpoint, EndpointMeters> endpointMeters = new ConcurrentHashMap<>();
+    private final ConcurrentHashMap<Flag, Counter> flagged = new ConcurrentHashMap<>();
+    private final MeterRegistry meterRegistry;
+    private final double sampleRate;
+    private final long maxStatements;
+    private final long maxDbTimeNanos;
+    private final long repeatedStatementThreshold;
+
+    public QueryStatsFilter(MeterRegistry meterRegistry, double sampleRate, long maxStatements,
+                            Duration maxDbTime, long repeatedStatementThreshold) {
+        this.meterRegistry = meterRegistry;
+        this.sampleRate = sampleRate;
+        this.maxStatements = maxStatements;
+        this.maxDbTimeNanos = maxDbTime.toNanos();
+        this.repeatedStatementThreshold = repeatedStatementThreshold;
+    }
+
+    // The async dispatch renders the result of async work, so it belongs to the same request
+    @Override
+    protected boolean shouldNotFilterAsyncDispatch() {
+        return false;
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain chain)
+            throws ServletException, IOException {
+        if (isAsyncDispatch(request)) {
+            QueryStats stats = stats(request);
+            if (stats == null) {
+                chain.doFilter(request, response);
+                return;
+            }
+            // Reported by the listener registered on the initial dispatch
+            try (QueryStats.Scope ignored = QueryStats.resume(stats)) {
+                chain.doFilter(request, response);
+            }
+            return;
+        }
+
+        if (sampleRate < 1.0 && ThreadLocalRandom.current().nextDouble() >= sampleRate) {
+            chain.doFilter(request, response);
+            return;
+        }
+
+        QueryStats.Scope scope = QueryStats.open();
+        // Set up front: async work may start before this dispatch returns
+        request.setAttribute(STATS_ATTRIBUTE, scope.stats());
+        try {
+            chain.doFilter(request, response);
+        } finally {
+            scope.close();
+            if (request.isAsyncStarted()) {
+                request.getAsyncContext().addListener(new AsyncListener() {
+                    @Override
+                    public void onComplete(AsyncEvent event) {
+                        report(request, scope.stats());
+                    }
+
+                    @Override
+                    public void onTimeout(AsyncEvent event) {
+                    }
+
+                    @Override
+                    public void onError(AsyncEvent event) {
+                    }
+
+                    @Override
+                    public void onStartAsync(AsyncEvent event) {
+                    }
+                });
+            } else {
+                report(request, scope.stats());
+            }
+        }
+    }
+
+    // Stats of a sampled request, shared by its dispatches and async work; null when not sampled
+    static QueryStats stats(HttpServletRequest request) {
+        return (QueryStats) request.getAttribute(STATS_ATTRIBUTE);
+    }
+
+    private void report(HttpServletRequest request, QueryStats stats) {
+        String method = request.getMethod();
+        Object pattern = request.getAttribute(HandlerMapping.BEST_MATCHING_PATTERN_ATTRIBUTE);
+        String uri = pattern != null ? pattern.toString() : "UNKNOWN";
+
+        EndpointMeters meters = endpointMeters.computeIfAbsent(new Endpoint(method, uri), this::endpointMeters);
+        meters.statements().record(stats.getStatements());
+        meters.dbTime().record(stats.getNanos(), TimeUnit.NANOSECONDS);
+
+        String reason = null;
+        Map.Entry<String, Long> repeated = stats.getMostRepeated();
+        if (repeated != null && repeated.getValue() >= repeatedStatementThreshold) {
+            reason = "repeated_statement";
+        } else if (stats.getStatements() > maxStatements) {
+            reason = "statements";
+        } else if (stats.getNanos() > maxDbTimeNanos) {
+            reason = "db_time";
+        }
+
+        if (reason == null) {
+            log.debug("{} {}: {}", method, uri, stats);
+            return;
+        }
+        flagged.computeIfAbsent(new Flag(method, uri, reason), this::flaggedCounter).increment();
+        log.warn("{} {} ran {}; most repeated ({}x): {}", method, request.getRequestURI(), stats,
+                repeated.getValue(), repeated.getKey());
+    }
+
+    private EndpointMeters endpointMeters(Endpoint endpoint) {
+        return new EndpointMeters(
+                DistributionSummary.builder("http.server.requests.statements")
+                        .description("SQL statements executed per request")
+                        .tags("method", endpoint.method(), "uri", endpoint.uri())
+                        .register(meterRegistry),
+                Timer.builder("http.server.requests.db.time")
+                        .description("Time spent executing SQL per request")
+                        .tags("method", endpoint.method(), "uri", endpoint.uri())
+                        .register(meterRegistry));
+    }
+
+    private Counter flaggedCounter(Flag flag) {
+        return Counter.builder("http.server.requests.flagged")
+                .description("Requests over the SQL statement or database time budget")
+                .tags("method", flag.method(), "uri", flag.uri(), "reason", flag.reason())
+                .register(meterRegistry);
+    }
+
+    private record Endpoint(String method, String uri) {
+    }
+
+    private record EndpointMeters(DistributionSummary statements, Timer dbTime) {
+    }
+
+    private record Flag(String method, String uri, String reason) {
+    }
+}
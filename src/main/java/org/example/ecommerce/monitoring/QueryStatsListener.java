@@ -0,0 +1,53 @@
+package org.example.ecommerce.monitoring;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import net.ttddyy.dsproxy.ExecutionInfo;
+import net.ttddyy.dsproxy.QueryInfo;
+import net.ttddyy.dsproxy.listener.QueryExecutionListener;
+
+import java.time.Duration;
+import java.util.List;
+
+/**
+ * Feeds every statement run through the proxied DataSource into the current
+ * {@link QueryStats}, and logs single statements slower than the threshold
+ * whether or not a scope is open.
+ */
+@Slf4j
+public class QueryStatsListener implements QueryExecutionListener {
+    private static final String STARTED = QueryStatsListener.class.getName() + ".started";
+
+    private final long slowQueryNanos;
+    private final Counter slowQueries;
+
+    public QueryStatsListener(Duration slowQueryThreshold, MeterRegistry meterRegistry) {
+        this.slowQueryNanos = slowQueryThreshold.toNanos();
+        this.slowQueries = Counter.builder("db.statements.slow")
+                .description("SQL statements slower than app.query-stats.slow-query")
+                .register(meterRegistry);
+    }
+
+    @Override
+    public void beforeQuery(ExecutionInfo execInfo, List<QueryInfo> queryInfoList) {
+        execInfo.addCustomValue(STARTED, System.nanoTime());
+    }
+
+    @Override
+    public void afterQuery(ExecutionInfo execInfo, List<QueryInfo> queryInfoList) {
+        long elapsed = System.nanoTime() - execInfo.getCustomValue(STARTED, Long.class);
+        // A JDBC batch is one round trip and counts as one statement
+        String sql = queryInfoList.isEmpty() ? "" : queryInfoList.get(0).getQuery();
+
+        QueryStats stats = QueryStats.current();
+        if (stats != null) {
+            stats.record(sql, elapsed);
+        }
+        if (elapsed > slowQueryNanos) {
+            slowQueries.increment();
+            log.warn("Slow SQL ({} ms{}): {}", elapsed / 1_000_000,
+                    execInfo.isBatch() ? ", batch of " + execInfo.getBatchSize() : "", sql);
+        }
+    }
+}
@@ -0,0 +1,37 @@
+package org.example.ecommerce.monitoring;
+
+import ch.qos.logback.classic.Level;
+import ch.qos.logback.classic.Logger;
+import ch.qos.logback.classic.turbo.TurboFilter;
+import ch.qos.logback.core.spi.FilterReply;
+import org.slf4j.Marker;
+
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * Lets through only a fraction of the INFO events from the per-request loggers
+ * (the controllers by default). The decision is taken before the message is
+ * formatted or queued, so a dropped event costs one random number. WARN and
+ * ERROR always pass, as do {@code isInfoEnabled()} checks, which carry no
+ * message; events are sampled where they are actually logged.
+ */
+public class RequestLogSampler extends TurboFilter {
+    private String loggerPrefix = "org.example.ecommerce.controller";
+    private double rate = 1.0;
+
+    public void setLoggerPrefix(String loggerPrefix) {
+        this.loggerPrefix = loggerPrefix;
+    }
+
+    public void setRate(double rate) {
+        this.rate = rate;
+    }
+
+    @Override
+    public FilterReply decide(Marker marker, Logger logger, Level level, String format, Object[] params, Throwable t) {
+        if (rate >= 1.0 || format == null || level != Level.INFO || !logger.getName().startsWith(loggerPrefix)) {
+            return FilterReply.NEUTRAL;
+        }
+        return ThreadLocalRandom.current().nextDouble() < rate ? FilterReply.NEUTRAL : FilterReply.DENY;
+    }
+}
@@ -0,0 +1,35 @@
+package org.example.ecommerce.repository;
+
+import org.example.ecommerce.dto.CategorySales;
+import org.example.ecommerce.entity.CategoryDailyStats;
+import org.example.ecommerce.entity.OrderStatus;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.List;
+
+@Repository
+public interface CategoryDailyStatsRepository extends JpaRepository<CategoryDailyStats, CategoryDailyStats.Key> {
+    // Applies a delta in place; 0 means the bucket does not exist yet
+    @Modifying
+    @Query("UPDATE CategoryDailyStats s SET s.orderCount = s.orderCount + :orders, s.units = s.units + :units, " +
+            "s.revenue = s.revenue + :revenue WHERE s.day = :day AND s.category = :category AND s.status = :status")
+    int addTotals(@Param("day") LocalDate day,
+                  @Param("category") String category,
+                  @Param("status") OrderStatus status,
+                  @Param("orders") long orders,
+                  @Param("units") long units,
+                  @Param("revenue") BigDecimal revenue);
+
+    @Query("SELECT new org.example.ecommerce.dto.CategorySales(s.category, SUM(s.orderCount), SUM(s.units), SUM(s.revenue)) " +
+            "FROM CategoryDailyStats s WHERE s.day BETWEEN :from AND :to AND s.status <> :excluded " +
+            "GROUP BY s.category ORDER BY SUM(s.revenue) DESC")
+    List<CategorySales> sumByCategory(@Param("from") LocalDate from,
+                                      @Param("to") LocalDate to,
+                                      @Param("excluded") OrderStatus excluded);
+}
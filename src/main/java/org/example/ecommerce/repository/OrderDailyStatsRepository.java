@@ -0,0 +1,38 @@
+package org.example.ecommerce.repository;
+
+import org.example.ecommerce.dto.DailySales;
+import org.example.ecommerce.dto.StatusSales;
+import org.example.ecommerce.entity.OrderDailyStats;
+import org.example.ecommerce.entity.OrderStatus;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.List;
+
+@Repository
+public interface OrderDailyStatsRepository extends JpaRepository<OrderDailyStats, OrderDailyStats.Key> {
+    // Applies a delta in place; 0 means the bucket does not exist yet
+    @Modifying
+    @Query("UPDATE OrderDailyStats s SET s.orderCount = s.orderCount + :orders, s.revenue = s.revenue + :revenue " +
+            "WHERE s.day = :day AND s.status = :status")
+    int addTotals(@Param("day") LocalDate day,
+                  @Param("status") OrderStatus status,
+                  @Param("orders") long orders,
+                  @Param("revenue") BigDecimal revenue);
+
+    @Query("SELECT new org.example.ecommerce.dto.StatusSales(s.status, SUM(s.orderCount), SUM(s.revenue)) " +
+            "FROM OrderDailyStats s WHERE s.day BETWEEN :from AND :to GROUP BY s.status ORDER BY s.status")
+    List<StatusSales> sumByStatus(@Param("from") LocalDate from, @Param("to") LocalDate to);
+
+    @Query("SELECT new org.example.ecommerce.dto.DailySales(s.day, SUM(s.orderCount), SUM(s.revenue)) " +
+            "FROM OrderDailyStats s WHERE s.day BETWEEN :from AND :to AND s.status <> :excluded " +
+            "GROUP BY s.day ORDER BY s.day")
+    List<DailySales> sumByDay(@Param("from") LocalDate from,
+                              @Param("to") LocalDate to,
+                              @Param("excluded") OrderStatus excluded);
+}
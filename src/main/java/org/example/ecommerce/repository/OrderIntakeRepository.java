@@ -0,0 +1,47 @@
+package org.example.ecommerce.repository;
+
+import org.example.ecommerce.entity.OrderIntake;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Optional;
+
+@Repository
+public interface OrderIntakeRepository extends JpaRepository<OrderIntake, Long> {
+    Optional<OrderIntake> findByIdempotencyKey(String idempotencyKey);
+
+    // Queued entries plus those whose worker lease ran out (crashed or stuck worker).
+    // SKIP LOCKED lets several workers or nodes claim disjoint batches without waiting
+    @Query(value = "SELECT id FROM order_intakes " +
+            "WHERE status = 'QUEUED' OR (status = 'PROCESSING' AND claimed_at < :staleBefore) " +
+            "ORDER BY id LIMIT :limit FOR UPDATE SKIP LOCKED",
+            nativeQuery = true)
+    List<Long> findClaimable(@Param("staleBefore") LocalDateTime staleBefore, @Param("limit") int limit);
+
+    @Modifying
+    @Query("UPDATE OrderIntake i SET i.status = org.example.ecommerce.entity.IntakeStatus.PROCESSING, " +
+            "i.claimToken = :token, i.claimedAt = :now, i.attempts = i.attempts + 1 WHERE i.id IN :ids")
+    int claim(@Param("ids") List<Long> ids, @Param("token") String token, @Param("now") LocalDateTime now);
+
+    // Only the current lease holder can finish an entry; 0 rows means the lease was lost
+    @Modifying
+    @Query("UPDATE OrderIntake i SET i.status = org.example.ecommerce.entity.IntakeStatus.COMPLETED, " +
+            "i.orderId = :orderId, i.completedAt = :now " +
+            "WHERE i.id = :id AND i.claimToken = :token " +
+            "AND i.status = org.example.ecommerce.entity.IntakeStatus.PROCESSING")
+    int complete(@Param("id") Long id, @Param("token") String token,
+                 @Param("orderId") Long orderId, @Param("now") LocalDateTime now);
+
+    @Modifying
+    @Query("UPDATE OrderIntake i SET i.status = org.example.ecommerce.entity.IntakeStatus.REJECTED, " +
+            "i.error = :error, i.completedAt = :now " +
+            "WHERE i.id = :id AND i.claimToken = :token " +
+            "AND i.status = org.example.ecommerce.entity.IntakeStatus.PROCESSING")
+    int reject(@Param("id") Long id, @Param("token") String token,
+               @Param("error") String error, @Param("now") LocalDateTime now);
+}
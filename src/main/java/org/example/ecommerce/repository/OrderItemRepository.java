@@ -0,0 +1,35 @@
+package org.example.ecommerce.repository;
+
+import org.example.ecommerce.entity.OrderItem;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.util.Collection;
+import java.util.List;
+
+@Repository
+public interface OrderItemRepository extends JpaRepository<OrderItem, Long> {
+    // Products whose stock still has journaled order items to fold in
+    @Query("SELECT DISTINCT oi.product.id FROM OrderItem oi WHERE oi.stockApplied = false")
+    List<Long> findProductIdsWithUnappliedStock();
+
+    // Marks journaled order items as folded into products.stock
+    @Modifying
+    @Query("UPDATE OrderItem oi SET oi.stockApplied = true WHERE oi.stockApplied = false")
+    int markStockApplied();
+
+    // Per-day and category totals of the given orders, for moving them between statistics buckets
+    @Query("SELECT CAST(o.createdAt AS LocalDate), p.category, COUNT(DISTINCT o.id), SUM(oi.quantity), " +
+            "SUM(oi.price * oi.quantity) FROM OrderItem oi JOIN oi.order o JOIN oi.product p " +
+            "WHERE o.id IN :ids AND o.createdAt IS NOT NULL GROUP BY CAST(o.createdAt AS LocalDate), p.category")
+    List<Object[]> sumSalesByDayAndCategory(@Param("ids") Collection<Long> ids);
+
+    // Full recompute of the category statistics buckets
+    @Query("SELECT CAST(o.createdAt AS LocalDate), p.category, o.status, COUNT(DISTINCT o.id), SUM(oi.quantity), " +
+            "SUM(oi.price * oi.quantity) FROM OrderItem oi JOIN oi.order o JOIN oi.product p " +
+            "WHERE o.createdAt IS NOT NULL GROUP BY CAST(o.createdAt AS LocalDate), p.category, o.status")
+    List<Object[]> sumSalesByDayCategoryAndStatus();
+}
@@ -1,16 +1,36 @@
 package org.example.ecommerce.repository;
 import org.example.ecommerce.entity.Order;
 import org.example.ecommerce.entity.OrderStatus;
+import org.springframework.data.domain.Limit;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.ScrollPosition;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.domain.Window;
+import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.List;
+import java.util.Optional;
+
 @Repository
 public interface OrderRepository extends JpaRepository<Order, Long> {
+    // Fetch the items and their products with the order so mapping it to a DTO needs no lazy loads
+    @EntityGraph(attributePaths = {"items", "items.product"})
+    Optional<Order> findWithItemsById(Long id);
+
+    @EntityGraph(attributePaths = {"items", "items.product"})
+    List<Order> findWithItemsByIdIn(Collection<Long> ids);
+
     Page<Order> findByUserId(Long userId, Pageable pageable);
+
+    Window<Order> findByUserId(Long userId, ScrollPosition position, Sort sort, Limit limit);
     Page<Order> findByStatus(OrderStatus status, Pageable pageable);
 
     @Query("SELECT o FROM Order o WHERE o.user.id = :userId AND o.status = :status")
@@ -23,4 +43,29 @@ public interface OrderRepository extends JpaRepository<Order, Long> {
     // Statistics query
     @Query("SELECT COUNT(o), SUM(o.totalAmount) FROM Order o WHERE o.status = :status")
     Object[] getOrderStatsByStatus(@Param("status") OrderStatus status);
+
+    // id/status pairs only, so bulk status changes never load the order graph. The rows
+    // stay locked until the transaction ends, taken in id order so overlapping chunks
+    // cannot deadlock
+    @Query(value = "SELECT id, status FROM orders WHERE id IN (:ids) ORDER BY id FOR UPDATE",
+            nativeQuery = true)
+    List<Object[]> lockStatusesByIdIn(@Param("ids") Collection<Long> ids);
+
+    // Per-day totals of the given orders, for moving them between statistics buckets
+    @Query("SELECT CAST(o.createdAt AS LocalDate), COUNT(o), SUM(o.totalAmount) FROM Order o " +
+            "WHERE o.id IN :ids AND o.createdAt IS NOT NULL GROUP BY CAST(o.createdAt AS LocalDate)")
+    List<Object[]> sumSalesByDay(@Param("ids") Collection<Long> ids);
+
+    // Full recompute of the order statistics buckets
+    @Query("SELECT CAST(o.createdAt AS LocalDate), o.status, COUNT(o), SUM(o.totalAmount) FROM Order o " +
+            "WHERE o.createdAt IS NOT NULL GROUP BY CAST(o.createdAt AS LocalDate), o.status")
+    List<Object[]> sumSalesByDayAndStatus();
+
+    @Modifying
+    @Query("UPDATE Order o SET o.status = :to, o.updatedAt = :now " +
+            "WHERE o.id IN :ids AND o.status = :from")
+    int updateStatus(@Param("ids") Collection<Long> ids,
+                     @Param("from") OrderStatus from,
+                     @Param("to") OrderStatus to,
+                     @Param("now") LocalDateTime now);
 }
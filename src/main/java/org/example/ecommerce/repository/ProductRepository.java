@@ -1,47 +1,72 @@
 package org.example.ecommerce.repository;
+import jakarta.persistence.QueryHint;
 import org.example.ecommerce.entity.Product;
+import org.hibernate.jpa.HibernateHints;
 //import org.hibernate.query.Page;
+import org.springframework.data.domain.Limit;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.ScrollPosition;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.domain.Window;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.JpaSpecificationExecutor;
 import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
-import java.math.BigDecimal;
 import java.util.List;
+import java.util.Optional;
+import java.util.stream.Stream;
 
 @Repository
-public interface ProductRepository extends JpaRepository<Product, Long> {
+public interface ProductRepository extends JpaRepository<Product, Long>,
+        JpaSpecificationExecutor<Product>, ProductStockRepository {
     // Method name query
     Page<Product> findByActiveTrue(Pageable pageable);
 
+    // Keyset variant: seeks past the position instead of skipping rows, no count query
+    Window<Product> findByActiveTrue(ScrollPosition position, Sort sort, Limit limit);
+
+    Window<Product> findBy(ScrollPosition position, Sort sort, Limit limit);
+
     Page<Product> findByCategoryAndActiveTrue(String category, Pageable pageable);
 
-    // Custom query with JPQL
-    @Query("SELECT p FROM Product p WHERE " +
-            "(:name IS NULL OR LOWER(p.name) LIKE LOWER(CONCAT('%', :name, '%'))) AND " +
-            "(:category IS NULL OR p.category = :category) AND " +
-            "(:minPrice IS NULL OR p.price >= :minPrice) AND " +
-            "(:maxPrice IS NULL OR p.price <= :maxPrice) AND " +
-            "(:active IS NULL OR p.active = :active)")
-    Page<Product> searchProducts(
-            @Param("name") String name,
-            @Param("category") String category,
-            @Param("minPrice") BigDecimal minPrice,
-            @Param("maxPrice") BigDecimal maxPrice,
-            @Param("active") Boolean active,
-            Pageable pageable
-    );
+    // Whole-catalog walk for exports: read-only entities fetched through a
+    // server-side cursor, so memory stays flat regardless of catalog size.
+    // Must be consumed inside a transaction (Postgres only streams with autocommit off)
+    @QueryHints({
+            @QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "500"),
+            @QueryHint(name = HibernateHints.HINT_READ_ONLY, value = "true"),
+            @QueryHint(name = HibernateHints.HINT_CACHEABLE, value = "false")
+    })
+    @Query("SELECT p FROM Product p WHERE p.active = true AND p.id > :afterId ORDER BY p.id")
+    Stream<Product> streamActiveAfter(@Param("afterId") long afterId);
+
     // Native SQL query for complex operations
     @Query(value = "SELECT category, COUNT(*) as count FROM products " +
             "WHERE active = true GROUP BY category",
             nativeQuery = true)
     List<Object[]> getProductCountByCategory();
 
-    // Update query
+    // Update query; only succeeds while enough stock is left, so callers can
+    // treat 0 updated rows as a rejected reservation
     @Modifying
-    @Query("UPDATE Product p SET p.stock = p.stock - :quantity WHERE p.id = :id")
+    @Query("UPDATE Product p SET p.stock = p.stock - :quantity, p.version = p.version + 1 " +
+            "WHERE p.id = :id AND p.stock >= :quantity")
     int decreaseStock(@Param("id") Long id, @Param("quantity") Integer quantity);
+
+    // Stock left once order items not yet folded into products.stock are subtracted
+    @Query("SELECT p.stock - COALESCE((SELECT SUM(oi.quantity) FROM OrderItem oi " +
+            "WHERE oi.product = p AND oi.stockApplied = false), 0) FROM Product p WHERE p.id = :id")
+    Optional<Integer> findAvailableStock(@Param("id") Long id);
+
+    // Folds the net quantity of unapplied order items into each product's stock
+    @Modifying
+    @Query("UPDATE Product p SET p.stock = p.stock - (SELECT SUM(oi.quantity) FROM OrderItem oi " +
+            "WHERE oi.product = p AND oi.stockApplied = false), p.version = p.version + 1 " +
+            "WHERE p.id IN (SELECT oi.product.id FROM OrderItem oi WHERE oi.stockApplied = false)")
+    int applyPendingStock();
 }
@@ -0,0 +1,55 @@
+package org.example.ecommerce.repository;
+
+import jakarta.persistence.criteria.Predicate;
+import org.example.ecommerce.dto.ProductSearchCriteria;
+import org.example.ecommerce.entity.Product;
+import org.example.ecommerce.search.SearchTerms;
+import org.springframework.data.jpa.domain.Specification;
+import org.springframework.util.StringUtils;
+
+import java.util.ArrayList;
+import java.util.List;
+
+public final class ProductSpecifications {
+
+    private ProductSpecifications() {
+    }
+
+    /**
+     * Builds a WHERE clause containing only the filters actually set, so each
+     * combination gets its own plan and can use the matching index instead of
+     * one generic "(:param IS NULL OR ...)" plan for every request.
+     * <p>
+     * The name query matches like the search index: every word of it must occur
+     * in the name, category or description, so a sorted search (served here)
+     * returns the same products as the ranked one (served by the index).
+     */
+    public static Specification<Product> matching(ProductSearchCriteria criteria) {
+        return (root, query, cb) -> {
+            List<Predicate> predicates = new ArrayList<>();
+
+            if (criteria.getActive() != null) {
+                predicates.add(cb.equal(root.get("active"), criteria.getActive()));
+            }
+            if (StringUtils.hasText(criteria.getCategory())) {
+                predicates.add(cb.equal(root.get("category"), criteria.getCategory()));
+            }
+            if (criteria.getMinPrice() != null) {
+                predicates.add(cb.greaterThanOrEqualTo(root.get("price"), criteria.getMinPrice()));
+            }
+            if (criteria.getMaxPrice() != null) {
+                predicates.add(cb.lessThanOrEqualTo(root.get("price"), criteria.getMaxPrice()));
+            }
+            // Words are letters and digits only, so they need no LIKE escaping
+            for (String word : SearchTerms.tokenize(criteria.getName())) {
+                String pattern = "%" + word + "%";
+                predicates.add(cb.or(
+                        cb.like(cb.lower(root.get("name")), pattern),
+                        cb.like(cb.lower(root.get("category")), pattern),
+                        cb.like(cb.lower(root.get("description")), pattern)));
+            }
+
+            return cb.and(predicates.toArray(new Predicate[0]));
+        };
+    }
+}
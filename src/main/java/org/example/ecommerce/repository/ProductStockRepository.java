@@ -0,0 +1,14 @@
+package org.example.ecommerce.repository;
+
+import java.util.List;
+import java.util.Map;
+
+public interface ProductStockRepository {
+    /**
+     * Applies the conditional stock decrement of {@link ProductRepository#decreaseStock}
+     * to every entry as a single JDBC batch, in the iteration order of the map.
+     *
+     * @return ids of the products whose row was not updated (missing or short on stock)
+     */
+    List<Long> decreaseStockBatch(Map<Long, Integer> quantities);
+}
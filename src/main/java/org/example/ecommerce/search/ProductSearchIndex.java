@@ -0,0 +1,329 @@
+package org.example.ecommerce.search;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.extern.slf4j.Slf4j;
+import org.example.ecommerce.dto.ProductDTO;
+import org.example.ecommerce.dto.ProductSearchCriteria;
+import org.example.ecommerce.entity.Product;
+import org.example.ecommerce.event.ProductChangedEvent;
+import org.example.ecommerce.event.ProductsImportedEvent;
+import org.example.ecommerce.mapper.ProductMapper;
+import org.example.ecommerce.repository.ProductRepository;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.data.domain.Limit;
+import org.springframework.data.domain.ScrollPosition;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.support.WindowIterator;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.util.StringUtils;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.PriorityQueue;
+import java.util.Set;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+import static org.example.ecommerce.search.SearchTerms.tokenize;
+
+/**
+ * Embedded inverted index over product name, category and description.
+ * <p>
+ * Terms map to weighted postings and every term is also registered under its
+ * trigrams, so a query word matches any indexed word containing it (the
+ * {@code LIKE '%word%'} semantics {@code ProductSpecifications} applies to the
+ * same fields) without scanning the catalog. A product matches when every query
+ * word is found in its name, category or description. Results are
+ * ranked by field weight and inverse document frequency; category, price and
+ * active filters are applied on the indexed snapshot.
+ * <p>
+ * The index is local to this instance and is only kept current by product
+ * events published here. Behind a load balancer, changes made on another node
+ * never reach it, so multi-node deployments must disable it
+ * ({@code app.search.index.enabled=false}) and search the database instead.
+ */
+@Component
+@ConditionalOnProperty(name = "app.search.index.enabled", havingValue = "true", matchIfMissing = true)
+@Slf4j
+public class ProductSearchIndex {
+    private static final float NAME_WEIGHT = 3f;
+    private static final float CATEGORY_WEIGHT = 2f;
+    private static final float DESCRIPTION_WEIGHT = 1f;
+    private static final int BUILD_BATCH_SIZE = 1000;
+
+    private final ReentrantReadWriteLock lock = new ReentrantReadWriteLock();
+    private final ProductRepository productRepository;
+    private final ProductMapper productMapper;
+
+    private Segment live = new Segment();
+    // Changes committed while a rebuild runs, replayed on top of the new segment
+    private List<ProductDTO> changedDuringBuild;
+    private volatile boolean ready;
+
+    public ProductSearchIndex(ProductRepository productRepository, ProductMapper productMapper) {
+        this.productRepository = productRepository;
+        this.productMapper = productMapper;
+    }
+
+    /**
+     * Whether {@code text} contains at least one indexable word.
+     */
+    public static boolean isSearchable(String text) {
+        return !tokenize(text).isEmpty();
+    }
+
+    public boolean isReady() {
+        return ready;
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void rebuild() {
+        lock.writeLock().lock();
+        try {
+            changedDuringBuild = new ArrayList<>();
+        } finally {
+            lock.writeLock().unlock();
+        }
+
+        Segment segment = new Segment();
+        WindowIterator<Product> products = WindowIterator.of(position ->
+                        productRepository.findBy(position, Sort.by("id"), Limit.of(BUILD_BATCH_SIZE)))
+                .startingAt(ScrollPosition.keyset());
+        products.forEachRemaining(product -> segment.add(productMapper.toDto(product)));
+
+        lock.writeLock().lock();
+        try {
+            changedDuringBuild.forEach(segment::add);
+            changedDuringBuild = null;
+            live = segment;
+            ready = true;
+        } finally {
+            lock.writeLock().unlock();
+        }
+        log.info("Product search index built with {} products and {} terms",
+                segment.documents.size(), segment.postings.size());
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    @Order(Ordered.HIGHEST_PRECEDENCE)
+    public void onProductChanged(ProductChangedEvent event) {
+        lock.writeLock().lock();
+        try {
+            live.add(event.getProduct());
+            if (changedDuringBuild != null) {
+                changedDuringBuild.add(event.getProduct());
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    @Order(Ordered.HIGHEST_PRECEDENCE)
+    public void onProductsImported(ProductsImportedEvent event) {
+        lock.writeLock().lock();
+        try {
+            event.getProducts().forEach(live::add);
+            if (changedDuringBuild != null) {
+                changedDuringBuild.addAll(event.getProducts());
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Ranks the products matching every word of {@code criteria.name} and the
+     * remaining filters, returning the ids of one page in relevance order.
+     */
+    public SearchHits search(ProductSearchCriteria criteria, int offset, int limit) {
+        List<String> words = tokenize(criteria.getName());
+
+        lock.readLock().lock();
+        try {
+            Map<Long, Float> scores = null;
+            for (String word : words) {
+                Map<Long, Float> wordScores = live.match(word);
+                if (scores == null) {
+                    scores = wordScores;
+                } else {
+                    scores.keySet().retainAll(wordScores.keySet());
+                    scores.replaceAll((id, score) -> score + wordScores.get(id));
+                }
+                if (scores.isEmpty()) {
+                    break;
+                }
+            }
+            if (scores == null) {
+                return new SearchHits(Collections.emptyList(), 0);
+            }
+
+            // Keep only the best offset + limit hits instead of sorting all matches
+            Comparator<Map.Entry<Long, Float>> rank = Map.Entry.<Long, Float>comparingByValue()
+                    .reversed()
+                    .thenComparing(Map.Entry.comparingByKey());
+            PriorityQueue<Map.Entry<Long, Float>> top = new PriorityQueue<>(rank.reversed());
+            int keep = offset + limit;
+            long total = 0;
+            for (Map.Entry<Long, Float> hit : scores.entrySet()) {
+                if (!live.documents.get(hit.getKey()).matches(criteria)) {
+                    continue;
+                }
+                total++;
+                top.add(hit);
+                if (top.size() > keep) {
+                    top.poll();
+                }
+            }
+
+            List<Map.Entry<Long, Float>> ranked = new ArrayList<>(top);
+            ranked.sort(rank);
+            List<Long> ids = new ArrayList<>(limit);
+            for (int i = offset; i < ranked.size(); i++) {
+                ids.add(ranked.get(i).getKey());
+            }
+            return new SearchHits(ids, total);
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    private static Set<String> trigrams(String term) {
+        Set<String> grams = new HashSet<>();
+        for (int i = 0; i + 3 <= term.length(); i++) {
+            grams.add(term.substring(i, i + 3));
+        }
+        return grams;
+    }
+
+    @Data
+    @AllArgsConstructor
+    public static class SearchHits {
+        private List<Long> ids;
+        private long total;
+    }
+
+    // Filterable snapshot of one product plus the terms it was indexed under
+    @AllArgsConstructor
+    private static class IndexedProduct {
+        private final String category;
+        private final BigDecimal price;
+        private final boolean active;
+        private final Set<String> terms;
+
+        boolean matches(ProductSearchCriteria criteria) {
+            return (!StringUtils.hasText(criteria.getCategory()) || criteria.getCategory().equals(category))
+                    && (criteria.getMinPrice() == null || price.compareTo(criteria.getMinPrice()) >= 0)
+                    && (criteria.getMaxPrice() == null || price.compareTo(criteria.getMaxPrice()) <= 0)
+                    && (criteria.getActive() == null || criteria.getActive() == active);
+        }
+    }
+
+    private static class Segment {
+        private final Map<Long, IndexedProduct> documents = new HashMap<>();
+        private final Map<String, Map<Long, Float>> postings = new HashMap<>();
+        private final Map<String, Set<String>> termsByTrigram = new HashMap<>();
+
+        void add(ProductDTO product) {
+            remove(product.getId());
+
+            Map<String, Float> weights = new LinkedHashMap<>();
+            tokenize(product.getName()).forEach(t -> weights.merge(t, NAME_WEIGHT, Float::sum));
+            tokenize(product.getCategory()).forEach(t -> weights.merge(t, CATEGORY_WEIGHT, Float::sum));
+            tokenize(product.getDescription()).forEach(t -> weights.merge(t, DESCRIPTION_WEIGHT, Float::sum));
+
+            weights.forEach((term, weight) -> {
+                Map<Long, Float> posting = postings.computeIfAbsent(term, t -> {
+                    trigrams(t).forEach(g -> termsByTrigram.computeIfAbsent(g, k -> new HashSet<>()).add(t));
+                    return new HashMap<>();
+                });
+                posting.put(product.getId(), weight);
+            });
+
+            documents.put(product.getId(), new IndexedProduct(
+                    product.getCategory(),
+                    product.getPrice(),
+                    Boolean.TRUE.equals(product.getActive()),
+                    weights.keySet()));
+        }
+
+        void remove(Long id) {
+            IndexedProduct previous = documents.remove(id);
+            if (previous == null) {
+                return;
+            }
+            for (String term : previous.terms) {
+                Map<Long, Float> posting = postings.get(term);
+                posting.remove(id);
+                if (posting.isEmpty()) {
+                    postings.remove(term);
+                    for (String gram : trigrams(term)) {
+                        Set<String> terms = termsByTrigram.get(gram);
+                        terms.remove(term);
+                        if (terms.isEmpty()) {
+                            termsByTrigram.remove(gram);
+                        }
+                    }
+                }
+            }
+        }
+
+        Map<Long, Float> match(String word) {
+            Map<Long, Float> scores = new HashMap<>();
+            for (String term : termsContaining(word)) {
+                Map<Long, Float> posting = postings.get(term);
+                float idf = (float) Math.log(1 + (double) documents.size() / posting.size());
+                // Whole-word and prefix matches rank above infix matches
+                float boost = term.equals(word) ? 2f : term.startsWith(word) ? 1.5f : 1f;
+                posting.forEach((id, weight) -> scores.merge(id, weight * idf * boost, Float::sum));
+            }
+            return scores;
+        }
+
+        private Collection<String> termsContaining(String word) {
+            if (word.length() < 3) {
+                // Too short for trigrams: scan the term dictionary, which grows far
+                // slower than the catalog, rather than the products themselves
+                List<String> matches = new ArrayList<>();
+                for (String term : postings.keySet()) {
+                    if (term.contains(word)) {
+                        matches.add(term);
+                    }
+                }
+                return matches;
+            }
+
+            Set<String> candidates = null;
+            for (String gram : trigrams(word)) {
+                Set<String> terms = termsByTrigram.get(gram);
+                if (terms == null) {
+                    return Collections.emptyList();
+                }
+                if (candidates == null || terms.size() < candidates.size()) {
+                    candidates = terms;
+                }
+            }
+
+            List<String> matches = new ArrayList<>();
+            for (String term : candidates) {
+                if (term.contains(word)) {
+                    matches.add(term);
+                }
+            }
+            return matches;
+        }
+    }
+}
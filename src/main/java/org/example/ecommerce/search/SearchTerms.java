@@ -0,0 +1,32 @@
+package org.example.ecommerce.search;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Locale;
+
+/**
+ * Splits free text into the lower-case words product search matches on. Shared
+ * by the search index and the database search so both find the same products.
+ */
+public final class SearchTerms {
+
+    private SearchTerms() {
+    }
+
+    /**
+     * Runs of letters and digits in {@code text}, lower-cased; empty for null.
+     */
+    public static List<String> tokenize(String text) {
+        if (text == null) {
+            return Collections.emptyList();
+        }
+        List<String> tokens = new ArrayList<>();
+        for (String token : text.toLowerCase(Locale.ROOT).split("[^\\p{L}\\p{N}]+")) {
+            if (!token.isEmpty()) {
+                tokens.add(token);
+            }
+        }
+        return tokens;
+    }
+}
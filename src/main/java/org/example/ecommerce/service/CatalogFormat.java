@@ -0,0 +1,32 @@
+package org.example.ecommerce.service;
+
+import lombok.Getter;
+import org.example.ecommerce.exception.BusinessException;
+
+import java.util.Locale;
+
+// Line-oriented formats accepted by the catalog import and produced by the export
+@Getter
+public enum CatalogFormat {
+    NDJSON("application/x-ndjson"),
+    CSV("text/csv");
+
+    // Column order of CSV rows after the optional leading id
+    public static final String CSV_COLUMNS = "name,description,price,stock,category,imageUrl";
+    // Header row written by the export; the import accepts it and ignores the ids
+    public static final String CSV_HEADER = "id," + CSV_COLUMNS;
+
+    private final String contentType;
+
+    CatalogFormat(String contentType) {
+        this.contentType = contentType;
+    }
+
+    public static CatalogFormat from(String value) {
+        try {
+            return valueOf(value.toUpperCase(Locale.ROOT));
+        } catch (IllegalArgumentException e) {
+            throw new BusinessException("Unsupported catalog format: " + value);
+        }
+    }
+}
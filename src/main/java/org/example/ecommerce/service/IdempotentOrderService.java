@@ -0,0 +1,195 @@
+package org.example.ecommerce.service;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import jakarta.persistence.EntityManager;
+import lombok.extern.slf4j.Slf4j;
+import org.example.ecommerce.dto.CreateOrderRequest;
+import org.example.ecommerce.dto.OrderDTO;
+import org.example.ecommerce.entity.IdempotencyRecord;
+import org.example.ecommerce.exception.BusinessException;
+import org.example.ecommerce.exception.ConflictException;
+import org.example.ecommerce.repository.IdempotencyRecordRepository;
+import org.hibernate.exception.ConstraintViolationException;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.HexFormat;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+
+/**
+ * Order creation keyed by the client's {@code Idempotency-Key}.
+ * <p>
+ * Recent keys live in a bounded Caffeine map of in-flight or finished
+ * results, so a retry is answered from memory and a duplicate that arrives
+ * while the first request is still running waits for its result instead of
+ * creating a second order. Keys that have left memory, or were used on
+ * another node, are found in {@code idempotency_keys}, which is written in
+ * the order's own transaction: its primary key makes the one-order-per-key
+ * guarantee hold across nodes and restarts.
+ */
+@Service
+@Slf4j
+public class IdempotentOrderService {
+    public static final int MAX_KEY_LENGTH = 255;
+
+    public record Result(OrderDTO order, boolean replayed) {
+    }
+
+    private record Pending(CreateOrderRequest request, CompletableFuture<OrderDTO> result) {
+    }
+
+    private final OrderService orderService;
+    private final IdempotencyRecordRepository idempotencyRecordRepository;
+    private final ObjectMapper objectMapper;
+    private final EntityManager entityManager;
+    private final TransactionTemplate transactionTemplate;
+    private final Cache<String, Pending> recent;
+    private final Duration retention;
+    private final Duration waitTimeout;
+
+    public IdempotentOrderService(OrderService orderService,
+                                  IdempotencyRecordRepository idempotencyRecordRepository,
+                                  ObjectMapper objectMapper,
+                                  EntityManager entityManager,
+                                  PlatformTransactionManager transactionManager,
+                                  @Value("${app.orders.idempotency.memory-size:100000}") long memorySize,
+                                  @Value("${app.orders.idempotency.memory-ttl:10m}") Duration memoryTtl,
+                                  @Value("${app.orders.idempotency.retention:24h}") Duration retention,
+                                  @Value("${app.orders.idempotency.wait-timeout:30s}") Duration waitTimeout) {
+        this.orderService = orderService;
+        this.idempotencyRecordRepository = idempotencyRecordRepository;
+        this.objectMapper = objectMapper;
+        this.entityManager = entityManager;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.recent = Caffeine.newBuilder()
+                .maximumSize(memorySize)
+                .expireAfterWrite(memoryTtl)
+                .build();
+        this.retention = retention;
+        this.waitTimeout = waitTimeout;
+    }
+
+    public Result createOrder(String key, CreateOrderRequest request) {
+        checkKey(key);
+
+        Pending mine = new Pending(request, new CompletableFuture<>());
+        Pending first = recent.asMap().putIfAbsent(key, mine);
+        if (first != null) {
+            if (!first.request().equals(request)) {
+                throw reusedKey(key);
+            }
+            return new Result(await(key, first.result()), true);
+        }
+
+        try {
+            Result result = execute(key, request);
+            mine.result().complete(result.order());
+            return result;
+        } catch (RuntimeException e) {
+            // Failed attempts are not remembered: the client may retry with the same key
+            recent.asMap().remove(key, mine);
+            mine.result().completeExceptionally(e);
+            throw e;
+        }
+    }
+
+    // Keys older than the retention window may be reused
+    @Scheduled(fixedDelayString = "${app.orders.idempotency.purge-interval-ms:3600000}")
+    public void purgeExpired() {
+        Integer purged = transactionTemplate.execute(status ->
+                idempotencyRecordRepository.deleteCreatedBefore(LocalDateTime.now().minus(retention)));
+        if (purged != null && purged > 0) {
+            log.info("Purged {} expired idempotency keys", purged);
+        }
+    }
+
+    private Result execute(String key, CreateOrderRequest request) {
+        String requestHash = fingerprint(objectMapper, request);
+
+        IdempotencyRecord existing = idempotencyRecordRepository.findById(key).orElse(null);
+        if (existing != null) {
+            return replay(key, existing, requestHash);
+        }
+
+        try {
+            OrderDTO order = transactionTemplate.execute(status -> {
+                OrderDTO created = orderService.createOrder(request);
+                // persist, not save: save would merge over a key another node just
+                // committed, where persist fails on the primary key and rolls the order back
+                entityManager.persist(IdempotencyRecord.builder()
+                        .key(key)
+                        .requestHash(requestHash)
+                        .orderId(created.getId())
+                        .createdAt(LocalDateTime.now())
+                        .build());
+                entityManager.flush();
+                return created;
+            });
+            return new Result(order, false);
+        } catch (DataIntegrityViolationException | ConstraintViolationException e) {
+            // Another node won the race for this key; our order was rolled back. The flush
+            // goes through the shared EntityManager, so the violation arrives untranslated
+            IdempotencyRecord winner = idempotencyRecordRepository.findById(key).orElseThrow(() -> e);
+            return replay(key, winner, requestHash);
+        }
+    }
+
+    private Result replay(String key, IdempotencyRecord record, String requestHash) {
+        if (!record.getRequestHash().equals(requestHash)) {
+            throw reusedKey(key);
+        }
+        return new Result(orderService.getOrder(record.getOrderId()), true);
+    }
+
+    private OrderDTO await(String key, CompletableFuture<OrderDTO> result) {
+        try {
+            return result.get(waitTimeout.toMillis(), TimeUnit.MILLISECONDS);
+        } catch (ExecutionException e) {
+            // Same outcome as the original request, e.g. insufficient stock
+            if (e.getCause() instanceof RuntimeException cause) {
+                throw cause;
+            }
+            throw new IllegalStateException(e.getCause());
+        } catch (TimeoutException e) {
+            throw new ConflictException("A request with Idempotency-Key " + key + " is still in progress");
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new ConflictException("Interrupted waiting for Idempotency-Key " + key);
+        }
+    }
+
+    // Shared with the order intake, which keys its queue entries the same way
+    static void checkKey(String key) {
+        if (key.isBlank() || key.length() > MAX_KEY_LENGTH) {
+            throw new BusinessException("Idempotency-Key must be 1 to " + MAX_KEY_LENGTH + " characters");
+        }
+    }
+
+    static ConflictException reusedKey(String key) {
+        return new ConflictException("Idempotency-Key " + key + " was already used for a different request");
+    }
+
+    static String fingerprint(ObjectMapper objectMapper, CreateOrderRequest request) {
+        try {
+            byte[] json = objectMapper.writeValueAsBytes(request);
+            return HexFormat.of().formatHex(MessageDigest.getInstance("SHA-256").digest(json));
+        } catch (JsonProcessingException | NoSuchAlgorithmException e) {
+            throw new IllegalStateException("Cannot fingerprint order request", e);
+        }
+    }
+}
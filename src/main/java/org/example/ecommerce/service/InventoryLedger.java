@@ -0,0 +1,193 @@
+package org.example.ecommerce.service;
+
+import lombok.extern.slf4j.Slf4j;
+import org.example.ecommerce.cache.ProductCache;
+import org.example.ecommerce.exception.BusinessException;
+import org.example.ecommerce.exception.ResourceNotFoundException;
+import org.example.ecommerce.repository.OrderItemRepository;
+import org.example.ecommerce.repository.ProductRepository;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.annotation.Isolation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.SortedMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.function.IntSupplier;
+
+/**
+ * In-memory inventory mode: admits or rejects stock reservations against
+ * per-product counters instead of locking the product row on every order.
+ * <p>
+ * Order items written while this mode is active carry {@code stockApplied = false}
+ * and act as the durable journal. A scheduled job folds the net quantity per
+ * product into {@code products.stock} and marks the items applied, so a crash
+ * loses nothing: counters are always derived from {@code stock} minus the items
+ * that are still unapplied, and startup replays whatever was left behind.
+ * Each flush evicts the cached products whose stock it changed.
+ * <p>
+ * Counters are per node. Two instances each admit orders against
+ * {@code stock - unapplied} independently and together will oversell, so this
+ * mode is only for single-node deployments (or one node owning all orders).
+ */
+@Component
+@ConditionalOnProperty(name = "app.inventory.in-memory.enabled", havingValue = "true")
+@Slf4j
+public class InventoryLedger {
+    private final ConcurrentHashMap<Long, StockCounter> counters = new ConcurrentHashMap<>();
+    private final ProductRepository productRepository;
+    private final OrderItemRepository orderItemRepository;
+    private final ProductCache productCache;
+
+    public InventoryLedger(ProductRepository productRepository,
+                           OrderItemRepository orderItemRepository,
+                           ProductCache productCache) {
+        this.productRepository = productRepository;
+        this.orderItemRepository = orderItemRepository;
+        this.productCache = productCache;
+    }
+
+    /**
+     * Takes stock for every product or for none of them. Must run inside a
+     * transaction: the counters are handed back if that transaction rolls back.
+     */
+    public void reserve(SortedMap<Long, Integer> quantities) {
+        List<Map.Entry<StockCounter, Integer>> taken = new ArrayList<>(quantities.size());
+
+        for (Map.Entry<Long, Integer> entry : quantities.entrySet()) {
+            StockCounter counter = counter(entry.getKey());
+            if (!counter.tryTake(entry.getValue())) {
+                taken.forEach(t -> t.getKey().complete(t.getValue(), false));
+                throw new BusinessException("Insufficient stock for product: " + entry.getKey());
+            }
+            taken.add(Map.entry(counter, entry.getValue()));
+        }
+
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCompletion(int status) {
+                boolean committed = status == STATUS_COMMITTED;
+                taken.forEach(t -> t.getKey().complete(t.getValue(), committed));
+            }
+        });
+    }
+
+    /**
+     * Reloads a product's counter after its stock column was overwritten
+     * outside the ledger, e.g. by a product update.
+     */
+    public void resync(Long productId) {
+        StockCounter counter = counters.get(productId);
+        if (counter != null) {
+            counter.resync(() -> loadAvailable(productId));
+        }
+    }
+
+    @Scheduled(fixedDelayString = "${app.inventory.in-memory.flush-interval-ms:1000}")
+    @Transactional(isolation = Isolation.REPEATABLE_READ)
+    public void flush() {
+        int items = applyPendingStock();
+        if (items > 0) {
+            log.debug("Flushed {} order items into product stock", items);
+        }
+    }
+
+    // Replays the items a previous run journaled but never flushed
+    @EventListener(ApplicationReadyEvent.class)
+    @Transactional(isolation = Isolation.REPEATABLE_READ)
+    public void reconcile() {
+        log.info("Inventory ledger reconciled {} unapplied order items", applyPendingStock());
+    }
+
+    private int applyPendingStock() {
+        // All statements read the same snapshot, so items committed in between
+        // are neither applied nor marked and are picked up by the next run
+        List<Long> productIds = orderItemRepository.findProductIdsWithUnappliedStock();
+        if (productIds.isEmpty() || productRepository.applyPendingStock() == 0) {
+            return 0;
+        }
+        int items = orderItemRepository.markStockApplied();
+        // Stock and version moved, so cached copies (and their ETags) are stale once this commits
+        productCache.evict(productIds);
+        return items;
+    }
+
+    private StockCounter counter(Long productId) {
+        StockCounter counter = counters.get(productId);
+        if (counter == null) {
+            // Loaded outside the map so the query never holds a map bin; a racing
+            // load of the same product loses and is discarded
+            StockCounter loaded = new StockCounter(loadAvailable(productId));
+            counter = counters.putIfAbsent(productId, loaded);
+            if (counter == null) {
+                counter = loaded;
+            }
+        }
+        return counter;
+    }
+
+    private int loadAvailable(Long productId) {
+        return productRepository.findAvailableStock(productId)
+                .orElseThrow(() -> new ResourceNotFoundException("Product", "id", productId));
+    }
+
+    /**
+     * Lock-free counter for one product. Reservations share the read lock and
+     * race on a CAS; only a resync takes the write lock.
+     */
+    private static final class StockCounter {
+        private final ReentrantReadWriteLock lock = new ReentrantReadWriteLock();
+        private final AtomicInteger available;
+        private final AtomicInteger inFlight = new AtomicInteger();
+
+        StockCounter(int available) {
+            this.available = new AtomicInteger(available);
+        }
+
+        boolean tryTake(int quantity) {
+            lock.readLock().lock();
+            try {
+                int current;
+                do {
+                    current = available.get();
+                    if (current < quantity) {
+                        return false;
+                    }
+                } while (!available.compareAndSet(current, current - quantity));
+                inFlight.addAndGet(quantity);
+                return true;
+            } finally {
+                lock.readLock().unlock();
+            }
+        }
+
+        void complete(int quantity, boolean committed) {
+            inFlight.addAndGet(-quantity);
+            if (!committed) {
+                available.addAndGet(quantity);
+            }
+        }
+
+        void resync(IntSupplier loader) {
+            lock.writeLock().lock();
+            try {
+                // Read in-flight first: a reservation committing in between is then
+                // counted twice (conservative) rather than not at all
+                int pending = inFlight.get();
+                available.set(loader.getAsInt() - pending);
+            } finally {
+                lock.writeLock().unlock();
+            }
+        }
+    }
+}
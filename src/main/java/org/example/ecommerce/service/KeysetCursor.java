@@ -0,0 +1,113 @@
+package org.example.ecommerce.service;
+
+import org.example.ecommerce.dto.CursorPage;
+import org.example.ecommerce.exception.BusinessException;
+import org.springframework.data.domain.KeysetScrollPosition;
+import org.springframework.data.domain.ScrollPosition;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.domain.Window;
+
+import java.math.BigDecimal;
+import java.net.URLDecoder;
+import java.net.URLEncoder;
+import java.nio.charset.StandardCharsets;
+import java.util.Base64;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+/**
+ * Opaque cursor for keyset paging: the sort key values plus the id of the
+ * last row served, encoded as base64url so clients treat it as a token.
+ * The cursor also records the sort it was issued for; presented with any
+ * other sort it is rejected, since its key values would not fit the query.
+ */
+final class KeysetCursor {
+    private static final String SORT_KEY = "sort";
+
+    // Properties that can appear in a cursor, with how to read them back
+    private static final Map<String, Function<String, Object>> KEY_TYPES = Map.of(
+            "id", Long::valueOf,
+            "name", value -> value,
+            "price", BigDecimal::new
+    );
+
+    private KeysetCursor() {
+    }
+
+    static void checkSortable(String property) {
+        if (!KEY_TYPES.containsKey(property)) {
+            throw new BusinessException("Cursor paging does not support sorting by: " + property);
+        }
+    }
+
+    static ScrollPosition decode(String cursor, Sort sort) {
+        if (cursor == null || cursor.isBlank()) {
+            return ScrollPosition.keyset();
+        }
+        Map<String, Object> keys = new LinkedHashMap<>();
+        String issuedFor;
+        try {
+            String raw = new String(Base64.getUrlDecoder().decode(cursor), StandardCharsets.UTF_8);
+            String[] pairs = raw.split("&");
+            issuedFor = value(pairs[0], SORT_KEY);
+            for (int i = 1; i < pairs.length; i++) {
+                int separator = pairs[i].indexOf('=');
+                String property = URLDecoder.decode(pairs[i].substring(0, separator), StandardCharsets.UTF_8);
+                Function<String, Object> parser = KEY_TYPES.get(property);
+                if (parser == null) {
+                    throw new IllegalArgumentException("Unknown cursor key: " + property);
+                }
+                keys.put(property, parser.apply(
+                        URLDecoder.decode(pairs[i].substring(separator + 1), StandardCharsets.UTF_8)));
+            }
+        } catch (IllegalArgumentException | IndexOutOfBoundsException ex) {
+            throw new BusinessException("Invalid cursor: " + cursor);
+        }
+        if (!issuedFor.equals(describe(sort))) {
+            throw new BusinessException("Cursor was issued for sort " + issuedFor
+                    + " and cannot be used with sort " + describe(sort));
+        }
+        return ScrollPosition.forward(keys);
+    }
+
+    static <T, R> CursorPage<R> toPage(Window<T> window, Sort sort, Function<T, R> mapper) {
+        List<R> content = window.getContent().stream()
+                .map(mapper)
+                .collect(Collectors.toList());
+
+        String nextCursor = window.hasNext() && !window.isEmpty()
+                ? encode(window.positionAt(window.size() - 1), sort)
+                : null;
+
+        return new CursorPage<>(content, content.size(), nextCursor);
+    }
+
+    private static String encode(ScrollPosition position, Sort sort) {
+        String raw = SORT_KEY + "=" + URLEncoder.encode(describe(sort), StandardCharsets.UTF_8) + "&"
+                + ((KeysetScrollPosition) position).getKeys().entrySet().stream()
+                .map(key -> URLEncoder.encode(key.getKey(), StandardCharsets.UTF_8) + "="
+                        + URLEncoder.encode(String.valueOf(key.getValue()), StandardCharsets.UTF_8))
+                .collect(Collectors.joining("&"));
+        return Base64.getUrlEncoder().withoutPadding()
+                .encodeToString(raw.getBytes(StandardCharsets.UTF_8));
+    }
+
+    // e.g. "price:ASC,id:ASC"
+    private static String describe(Sort sort) {
+        return sort.stream()
+                .map(order -> order.getProperty() + ":" + order.getDirection())
+                .distinct()
+                .collect(Collectors.joining(","));
+    }
+
+    private static String value(String pair, String expectedKey) {
+        int separator = pair.indexOf('=');
+        if (!pair.substring(0, separator).equals(expectedKey)) {
+            throw new IllegalArgumentException("Missing cursor key: " + expectedKey);
+        }
+        return URLDecoder.decode(pair.substring(separator + 1), StandardCharsets.UTF_8);
+    }
+}
@@ -0,0 +1,113 @@
+package org.example.ecommerce.service;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import lombok.extern.slf4j.Slf4j;
+import org.example.ecommerce.dto.CreateOrderRequest;
+import org.example.ecommerce.dto.OrderIntakeDTO;
+import org.example.ecommerce.entity.IntakeStatus;
+import org.example.ecommerce.entity.OrderIntake;
+import org.example.ecommerce.exception.ResourceNotFoundException;
+import org.example.ecommerce.repository.OrderIntakeRepository;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDateTime;
+
+/**
+ * Accept-then-process order intake: a request is stored as a queued
+ * {@link OrderIntake} with a single insert and acknowledged straight away;
+ * {@link OrderIntakeWorker} turns it into an order later.
+ * <p>
+ * With an {@code Idempotency-Key} the entry is keyed like
+ * {@link IdempotentOrderService} keys orders: a retry gets the entry the key
+ * first queued, a different request under the same key is refused, and a
+ * unique constraint on the key settles races between nodes.
+ */
+@Service
+@ConditionalOnProperty(name = "app.orders.async-intake.enabled", havingValue = "true")
+@Slf4j
+@Transactional
+public class OrderIntakeService {
+    public record Submission(OrderIntakeDTO intake, boolean replayed) {
+    }
+
+    private final OrderIntakeRepository orderIntakeRepository;
+    private final ObjectMapper objectMapper;
+
+    public OrderIntakeService(OrderIntakeRepository orderIntakeRepository,
+                              ObjectMapper objectMapper) {
+        this.orderIntakeRepository = orderIntakeRepository;
+        this.objectMapper = objectMapper;
+    }
+
+    public OrderIntakeDTO submit(CreateOrderRequest request) {
+        return toDto(orderIntakeRepository.save(queued(request).build()));
+    }
+
+    // No surrounding transaction: a lost race must not leave the lookup that
+    // follows it in a transaction already marked for rollback
+    @Transactional(propagation = Propagation.NOT_SUPPORTED)
+    public Submission submit(String key, CreateOrderRequest request) {
+        IdempotentOrderService.checkKey(key);
+        String requestHash = IdempotentOrderService.fingerprint(objectMapper, request);
+
+        OrderIntake existing = orderIntakeRepository.findByIdempotencyKey(key).orElse(null);
+        if (existing != null) {
+            return replay(key, existing, requestHash);
+        }
+        try {
+            OrderIntake intake = orderIntakeRepository.saveAndFlush(queued(request)
+                    .idempotencyKey(key)
+                    .requestHash(requestHash)
+                    .build());
+            return new Submission(toDto(intake), false);
+        } catch (DataIntegrityViolationException e) {
+            // Another request with this key was queued first
+            OrderIntake winner = orderIntakeRepository.findByIdempotencyKey(key).orElseThrow(() -> e);
+            return replay(key, winner, requestHash);
+        }
+    }
+
+    @Transactional(readOnly = true)
+    public OrderIntakeDTO getIntake(Long id) {
+        OrderIntake intake = orderIntakeRepository.findById(id)
+                .orElseThrow(() -> new ResourceNotFoundException("OrderIntake", "id", id));
+        return toDto(intake);
+    }
+
+    private OrderIntake.OrderIntakeBuilder queued(CreateOrderRequest request) {
+        String payload;
+        try {
+            payload = objectMapper.writeValueAsString(request);
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException("Cannot serialize order request", e);
+        }
+        return OrderIntake.builder()
+                .payload(payload)
+                .status(IntakeStatus.QUEUED)
+                .attempts(0)
+                .createdAt(LocalDateTime.now());
+    }
+
+    private Submission replay(String key, OrderIntake intake, String requestHash) {
+        if (!requestHash.equals(intake.getRequestHash())) {
+            throw IdempotentOrderService.reusedKey(key);
+        }
+        return new Submission(toDto(intake), true);
+    }
+
+    private OrderIntakeDTO toDto(OrderIntake intake) {
+        return new OrderIntakeDTO(
+                intake.getId(),
+                intake.getStatus(),
+                intake.getOrderId(),
+                intake.getError(),
+                intake.getCreatedAt(),
+                intake.getCompletedAt()
+        );
+    }
+}
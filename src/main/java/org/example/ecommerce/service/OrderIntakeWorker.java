@@ -0,0 +1,139 @@
+package org.example.ecommerce.service;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.example.ecommerce.dto.CreateOrderRequest;
+import org.example.ecommerce.dto.OrderDTO;
+import org.example.ecommerce.entity.OrderIntake;
+import org.example.ecommerce.exception.BusinessException;
+import org.example.ecommerce.exception.ResourceNotFoundException;
+import org.example.ecommerce.repository.OrderIntakeRepository;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+
+/**
+ * Drains the order intake queue in batches.
+ * <p>
+ * A poll claims up to {@code batch-size} entries under one lease token, then
+ * creates each order in its own transaction on the worker pool. Each poll
+ * handles one batch and returns, since it runs on the scheduler thread that
+ * every other {@code @Scheduled} job shares; a backlog drains at up to
+ * {@code batch-size} orders per {@code poll-interval-ms}. Marking the
+ * entry completed happens in that same transaction and only succeeds for the
+ * current lease holder, so an order is created exactly once even if a lease
+ * expires and another worker picks the entry up. Entries left mid-flight by a
+ * crash are reclaimed after {@code lease-timeout} and retried up to
+ * {@code max-attempts} times.
+ */
+@Component
+@ConditionalOnProperty(name = "app.orders.async-intake.enabled", havingValue = "true")
+@Slf4j
+public class OrderIntakeWorker {
+    private final OrderIntakeRepository orderIntakeRepository;
+    private final OrderService orderService;
+    private final ObjectMapper objectMapper;
+    private final TransactionTemplate transactionTemplate;
+    private final ThreadPoolTaskExecutor workers;
+    private final int batchSize;
+    private final long leaseTimeoutMs;
+    private final int maxAttempts;
+
+    public OrderIntakeWorker(OrderIntakeRepository orderIntakeRepository,
+                             OrderService orderService,
+                             ObjectMapper objectMapper,
+                             PlatformTransactionManager transactionManager,
+                             @Value("${app.orders.async-intake.workers:4}") int workerCount,
+                             @Value("${app.orders.async-intake.batch-size:100}") int batchSize,
+                             @Value("${app.orders.async-intake.lease-timeout-ms:60000}") long leaseTimeoutMs,
+                             @Value("${app.orders.async-intake.max-attempts:5}") int maxAttempts) {
+        this.orderIntakeRepository = orderIntakeRepository;
+        this.orderService = orderService;
+        this.objectMapper = objectMapper;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.batchSize = batchSize;
+        this.leaseTimeoutMs = leaseTimeoutMs;
+        this.maxAttempts = maxAttempts;
+
+        this.workers = new ThreadPoolTaskExecutor();
+        workers.setCorePoolSize(workerCount);
+        workers.setMaxPoolSize(workerCount);
+        workers.setThreadNamePrefix("order-intake-");
+        workers.setWaitForTasksToCompleteOnShutdown(true);
+        workers.initialize();
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        workers.shutdown();
+    }
+
+    @Scheduled(fixedDelayString = "${app.orders.async-intake.poll-interval-ms:200}")
+    public void drain() {
+        String token = UUID.randomUUID().toString();
+        List<Long> ids = transactionTemplate.execute(status -> claim(token));
+        if (!ids.isEmpty()) {
+            CompletableFuture.allOf(ids.stream()
+                    .map(id -> CompletableFuture.runAsync(() -> process(id, token), workers))
+                    .toArray(CompletableFuture[]::new)).join();
+        }
+    }
+
+    private List<Long> claim(String token) {
+        LocalDateTime now = LocalDateTime.now();
+        List<Long> ids = orderIntakeRepository.findClaimable(now.minusNanos(leaseTimeoutMs * 1_000_000), batchSize);
+        if (!ids.isEmpty()) {
+            orderIntakeRepository.claim(ids, token, now);
+        }
+        return ids;
+    }
+
+    private void process(Long id, String token) {
+        OrderIntake intake = orderIntakeRepository.findById(id).orElse(null);
+        if (intake == null || !token.equals(intake.getClaimToken())) {
+            return;
+        }
+        if (intake.getAttempts() > maxAttempts) {
+            reject(id, token, "Gave up after " + maxAttempts + " attempts");
+            return;
+        }
+
+        try {
+            transactionTemplate.executeWithoutResult(status -> {
+                OrderDTO order = orderService.createOrder(readRequest(intake));
+                if (orderIntakeRepository.complete(id, token, order.getId(), LocalDateTime.now()) == 0) {
+                    // Lease expired and was taken over; roll the order back and let the new holder finish
+                    throw new IllegalStateException("Lost lease on order intake " + id);
+                }
+            });
+        } catch (BusinessException | ResourceNotFoundException e) {
+            reject(id, token, e.getMessage());
+        } catch (RuntimeException e) {
+            // Left in PROCESSING; retried once the lease runs out
+            log.warn("Order intake {} failed, will retry: {}", id, e.getMessage());
+        }
+    }
+
+    private void reject(Long id, String token, String error) {
+        transactionTemplate.executeWithoutResult(status ->
+                orderIntakeRepository.reject(id, token, error, LocalDateTime.now()));
+    }
+
+    private CreateOrderRequest readRequest(OrderIntake intake) {
+        try {
+            return objectMapper.readValue(intake.getPayload(), CreateOrderRequest.class);
+        } catch (Exception e) {
+            throw new BusinessException("Unreadable order request: " + e.getMessage());
+        }
+    }
+}
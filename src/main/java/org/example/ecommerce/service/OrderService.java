@@ -1,24 +1,36 @@
 package org.example.ecommerce.service;
 
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
 import lombok.extern.slf4j.Slf4j;
+import org.example.ecommerce.cache.ProductCache;
 import org.example.ecommerce.dto.*;
 import org.example.ecommerce.entity.*;
+import org.example.ecommerce.event.OrderSalesChangedEvent;
 import org.example.ecommerce.exception.BusinessException;
 import org.example.ecommerce.exception.ResourceNotFoundException;
+import org.example.ecommerce.mapper.OrderMapper;
 import org.example.ecommerce.repository.OrderRepository;
 import org.example.ecommerce.repository.ProductRepository;
 import org.example.ecommerce.repository.UserRepository;
-import org.modelmapper.ModelMapper;
+import org.example.ecommerce.stats.SalesDelta;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.data.domain.Limit;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.domain.Sort;
+import org.springframework.data.domain.Window;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
 import java.math.BigDecimal;
+import java.time.LocalDateTime;
 import java.util.ArrayList;
 import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.function.Function;
 import java.util.stream.Collectors;
 @Service
 @Slf4j
@@ -27,48 +39,83 @@ public class OrderService {
     private final OrderRepository orderRepository;
     private final ProductRepository productRepository;
     private final UserRepository userRepository;
-    private final ModelMapper modelMapper;
+    private final StockReservationService stockReservationService;
+    private final OrderMapper orderMapper;
+    private final ProductCache productCache;
+    private final ApplicationEventPublisher eventPublisher;
+    private final MeterRegistry meterRegistry;
+    private final Timer userLookupTimer;
+    private final Timer stockCheckTimer;
+    private final Timer persistTimer;
+    private final Timer mappingTimer;
 
     public OrderService(OrderRepository orderRepository,
                         ProductRepository productRepository,
                         UserRepository userRepository,
-                        ModelMapper modelMapper) {
+                        StockReservationService stockReservationService,
+                        OrderMapper orderMapper,
+                        ProductCache productCache,
+                        ApplicationEventPublisher eventPublisher,
+                        MeterRegistry meterRegistry) {
         this.orderRepository = orderRepository;
         this.productRepository = productRepository;
         this.userRepository = userRepository;
-        this.modelMapper = modelMapper;
+        this.stockReservationService = stockReservationService;
+        this.orderMapper = orderMapper;
+        this.productCache = productCache;
+        this.eventPublisher = eventPublisher;
+        this.meterRegistry = meterRegistry;
+        this.userLookupTimer = phaseTimer(meterRegistry, "user_lookup");
+        this.stockCheckTimer = phaseTimer(meterRegistry, "stock_check");
+        this.persistTimer = phaseTimer(meterRegistry, "persist");
+        this.mappingTimer = phaseTimer(meterRegistry, "mapping");
     }
 
     public OrderDTO createOrder(CreateOrderRequest request) {
         log.info("Creating order for user: {}", request.getUserId());
 
         // Validate user exists
+        Timer.Sample phase = Timer.start(meterRegistry);
         User user = userRepository.findById(request.getUserId())
                 .orElseThrow(() -> new ResourceNotFoundException("User", "id", request.getUserId()));
+        phase.stop(userLookupTimer);
 
         // Create order
         Order order = Order.builder()
                 .user(user)
                 .status(OrderStatus.PENDING)
                 .shippingAddress(request.getShippingAddress())
+                .createdAt(LocalDateTime.now())
                 .build();
 
+        // Sum quantities per product so repeated lines reserve stock once
+        Map<Long, Integer> quantities = new TreeMap<>();
+        for (OrderItemRequest itemRequest : request.getItems()) {
+            quantities.merge(itemRequest.getProductId(), itemRequest.getQuantity(), Integer::sum);
+        }
+
+        // Load every referenced product in a single query instead of one per line
+        phase = Timer.start(meterRegistry);
+        Map<Long, Product> products = productRepository.findAllById(quantities.keySet()).stream()
+                .collect(Collectors.toMap(Product::getId, Function.identity()));
+        for (Long productId : quantities.keySet()) {
+            if (!products.containsKey(productId)) {
+                throw new ResourceNotFoundException("Product", "id", productId);
+            }
+        }
+
+        // Decrease stock atomically, all-or-nothing for the whole order
+        stockReservationService.reserve(quantities);
+        productCache.evict(quantities.keySet());
+        phase.stop(stockCheckTimer);
+
         // Process order items
+        phase = Timer.start(meterRegistry);
         BigDecimal totalAmount = BigDecimal.ZERO;
         List<OrderItem> orderItems = new ArrayList<>();
 
         for (OrderItemRequest itemRequest : request.getItems()) {
-            Product product = productRepository.findById(itemRequest.getProductId())
-                    .orElseThrow(() -> new ResourceNotFoundException("Product", "id", itemRequest.getProductId()));
-
-            // Check stock availability
-            if (product.getStock() < itemRequest.getQuantity()) {
-                throw new BusinessException("Insufficient stock for product: " + product.getName());
-            }
-
-            // Decrease stock
-            product.setStock(product.getStock() - itemRequest.getQuantity());
-            productRepository.save(product);
+            Product product = products.get(itemRequest.getProductId());
 
             // Calculate item total
             BigDecimal itemTotal = product.getPrice()
@@ -81,6 +128,7 @@ public class OrderService {
                     .product(product)
                     .quantity(itemRequest.getQuantity())
                     .price(product.getPrice())
+                    .stockApplied(!stockReservationService.isWriteBehind())
                     .build();
 
             orderItems.add(orderItem);
@@ -90,14 +138,22 @@ public class OrderService {
         order.setTotalAmount(totalAmount);
 
         Order savedOrder = orderRepository.save(order);
-        return mapToOrderDTO(savedOrder);
+        // Flush here so the inserts are timed with this phase rather than at commit
+        orderRepository.flush();
+        eventPublisher.publishEvent(new OrderSalesChangedEvent(SalesDelta.of(savedOrder, OrderStatus.PENDING, 1)));
+        phase.stop(persistTimer);
+
+        phase = Timer.start(meterRegistry);
+        OrderDTO dto = orderMapper.toDto(savedOrder);
+        phase.stop(mappingTimer);
+        return dto;
     }
 
     @Transactional(readOnly = true)
     public OrderDTO getOrder(Long id) {
-        Order order = orderRepository.findById(id)
+        Order order = orderRepository.findWithItemsById(id)
                 .orElseThrow(() -> new ResourceNotFoundException("Order", "id", id));
-        return mapToOrderDTO(order);
+        return orderMapper.toDto(order);
     }
 
     @Transactional(readOnly = true)
@@ -105,46 +161,69 @@ public class OrderService {
         Pageable pageable = PageRequest.of(page, size, Sort.by("createdAt").descending());
         Page<Order> orders = orderRepository.findByUserId(userId, pageable);
 
+        // Initialize items and products for the whole page in one query; the
+        // fetched graph attaches to the orders already in the persistence context
+        if (orders.hasContent()) {
+            orderRepository.findWithItemsByIdIn(orders.map(Order::getId).getContent());
+        }
+
         return mapToPagedResponse(orders);
     }
 
+    @Transactional(readOnly = true)
+    public CursorPage<OrderDTO> scrollUserOrders(Long userId, String after, int size) {
+        // Newest first; ids are unique, so they serve as the keyset on their own.
+        // Pooled sequences keep them increasing per node, so with several nodes
+        // the order is approximate around each node's block boundaries
+        Sort sort = Sort.by("id").descending();
+        Window<Order> orders = orderRepository.findByUserId(
+                userId, KeysetCursor.decode(after, sort), sort, Limit.of(size));
+
+        if (!orders.isEmpty()) {
+            orderRepository.findWithItemsByIdIn(orders.map(Order::getId).getContent());
+        }
+
+        return KeysetCursor.toPage(orders, sort, orderMapper::toDto);
+    }
+
     public OrderDTO updateOrderStatus(Long orderId, OrderStatus newStatus) {
         log.info("Updating order {} status to {}", orderId, newStatus);
 
-        Order order = orderRepository.findById(orderId)
+        // Lock the row first, so a concurrent bulk change cannot move the order between the
+        // transition check and the update
+        orderRepository.lockStatusesByIdIn(List.of(orderId));
+        Order order = orderRepository.findWithItemsById(orderId)
                 .orElseThrow(() -> new ResourceNotFoundException("Order", "id", orderId));
 
+        OrderStatus oldStatus = order.getStatus();
+        if (oldStatus != newStatus && !oldStatus.canTransitionTo(newStatus)) {
+            throw new BusinessException("Cannot change order status from " + oldStatus + " to " + newStatus
+                    + "; allowed: " + oldStatus.nextStatuses());
+        }
         order.setStatus(newStatus);
+        order.setUpdatedAt(LocalDateTime.now());
         Order updated = orderRepository.save(order);
 
-        return mapToOrderDTO(updated);
-    }
+        if (oldStatus != newStatus) {
+            List<SalesDelta> deltas = new ArrayList<>(SalesDelta.of(updated, oldStatus, -1));
+            deltas.addAll(SalesDelta.of(updated, newStatus, 1));
+            eventPublisher.publishEvent(new OrderSalesChangedEvent(deltas));
+        }
 
-    private OrderDTO mapToOrderDTO(Order order) {
-        OrderDTO dto = new OrderDTO();
-        dto.setId(order.getId());
-        dto.setUserId(order.getUser().getId());
-        dto.setTotalAmount(order.getTotalAmount());
-        dto.setStatus(order.getStatus());
-        dto.setShippingAddress(order.getShippingAddress());
-        dto.setCreatedAt(order.getCreatedAt());
-
-        List<OrderItemDTO> itemDTOs = order.getItems().stream()
-                .map(item -> new OrderItemDTO(
-                        item.getProduct().getId(),
-                        item.getProduct().getName(),
-                        item.getQuantity(),
-                        item.getPrice()
-                ))
-                .collect(Collectors.toList());
+        return orderMapper.toDto(updated);
+    }
 
-        dto.setItems(itemDTOs);
-        return dto;
+    // Registered once so recording a phase is a plain timer update, no meter lookup
+    private static Timer phaseTimer(MeterRegistry meterRegistry, String phase) {
+        return Timer.builder("orders.create.phase")
+                .description("Time spent in each phase of placing an order")
+                .tag("phase", phase)
+                .register(meterRegistry);
     }
 
     private PagedResponse<OrderDTO> mapToPagedResponse(Page<Order> page) {
         List<OrderDTO> content = page.getContent().stream()
-                .map(this::mapToOrderDTO)
+                .map(orderMapper::toDto)
                 .collect(Collectors.toList());
 
         return new PagedResponse<>(
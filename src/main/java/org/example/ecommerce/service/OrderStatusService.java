@@ -0,0 +1,152 @@
+package org.example.ecommerce.service;
+
+import lombok.extern.slf4j.Slf4j;
+import org.example.ecommerce.dto.BulkStatusUpdateRequest;
+import org.example.ecommerce.dto.BulkStatusUpdateResult;
+import org.example.ecommerce.dto.StatusUpdateOutcome;
+import org.example.ecommerce.entity.OrderStatus;
+import org.example.ecommerce.event.OrderSalesChangedEvent;
+import org.example.ecommerce.exception.BusinessException;
+import org.example.ecommerce.repository.OrderItemRepository;
+import org.example.ecommerce.repository.OrderRepository;
+import org.example.ecommerce.stats.SalesDelta;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+/**
+ * Moves many orders from one status to another with set-based updates.
+ * Ids are handled in chunks, each in its own transaction: the rows of the
+ * chunk are locked with {@code SELECT ... FOR UPDATE} while their statuses are
+ * read as id/status pairs, and those still in {@code from} are switched with a
+ * single {@code UPDATE ... WHERE id IN (...) AND status = :from}. Because the
+ * rows stay locked until commit, exactly the orders read as {@code from} are
+ * changed, so the outcomes and the published sales deltas cover only those.
+ * Orders are never loaded as entities, and an order that another request moved
+ * first is reported rather than overwritten.
+ */
+@Service
+@Slf4j
+public class OrderStatusService {
+    private final OrderRepository orderRepository;
+    private final OrderItemRepository orderItemRepository;
+    private final ApplicationEventPublisher eventPublisher;
+    private final TransactionTemplate transactionTemplate;
+    private final int chunkSize;
+
+    public OrderStatusService(OrderRepository orderRepository,
+                              OrderItemRepository orderItemRepository,
+                              ApplicationEventPublisher eventPublisher,
+                              PlatformTransactionManager transactionManager,
+                              @Value("${app.orders.bulk-status.chunk-size:1000}") int chunkSize) {
+        this.orderRepository = orderRepository;
+        this.orderItemRepository = orderItemRepository;
+        this.eventPublisher = eventPublisher;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.chunkSize = chunkSize;
+    }
+
+    public BulkStatusUpdateResult updateStatuses(BulkStatusUpdateRequest request) {
+        OrderStatus from = request.getFrom();
+        OrderStatus to = request.getTo();
+        if (!from.canTransitionTo(to)) {
+            throw new BusinessException("Cannot change order status from " + from + " to " + to
+                    + "; allowed: " + from.nextStatuses());
+        }
+
+        List<Long> ids = new ArrayList<>(new LinkedHashSet<>(request.getOrderIds()));
+        log.info("Changing status of {} orders from {} to {}", ids.size(), from, to);
+
+        List<StatusUpdateOutcome> outcomes = new ArrayList<>(ids.size());
+        LocalDateTime now = LocalDateTime.now();
+        for (int start = 0; start < ids.size(); start += chunkSize) {
+            List<Long> chunk = ids.subList(start, Math.min(start + chunkSize, ids.size()));
+            outcomes.addAll(transactionTemplate.execute(status -> updateChunk(chunk, from, to, now)));
+        }
+
+        long updated = outcomes.stream()
+                .filter(outcome -> outcome.getResult() == StatusUpdateOutcome.Result.UPDATED)
+                .count();
+        log.info("Changed status of {}/{} orders from {} to {}", updated, ids.size(), from, to);
+        return new BulkStatusUpdateResult(from, to, ids.size(), updated, outcomes);
+    }
+
+    private List<StatusUpdateOutcome> updateChunk(List<Long> chunk, OrderStatus from, OrderStatus to,
+                                                  LocalDateTime now) {
+        Map<Long, OrderStatus> statuses = lockStatuses(chunk);
+        Set<Long> candidates = chunk.stream()
+                .filter(id -> statuses.get(id) == from)
+                .collect(Collectors.toSet());
+
+        if (!candidates.isEmpty()) {
+            int changed = orderRepository.updateStatus(candidates, from, to, now);
+            if (changed != candidates.size()) {
+                // Cannot happen while the rows are locked; rolls the chunk back rather than
+                // reporting or publishing changes that did not happen
+                throw new IllegalStateException("Expected to change " + candidates.size()
+                        + " locked orders but changed " + changed);
+            }
+        }
+
+        List<StatusUpdateOutcome> outcomes = new ArrayList<>(chunk.size());
+        for (Long id : chunk) {
+            OrderStatus current = statuses.get(id);
+            if (current == null) {
+                outcomes.add(new StatusUpdateOutcome(id, StatusUpdateOutcome.Result.NOT_FOUND, null));
+            } else if (candidates.contains(id)) {
+                outcomes.add(new StatusUpdateOutcome(id, StatusUpdateOutcome.Result.UPDATED, to));
+            } else {
+                outcomes.add(new StatusUpdateOutcome(id, StatusUpdateOutcome.Result.STATUS_MISMATCH, current));
+            }
+        }
+
+        if (!candidates.isEmpty()) {
+            eventPublisher.publishEvent(new OrderSalesChangedEvent(salesDeltas(candidates, from, to)));
+        }
+        return outcomes;
+    }
+
+    // Moves the updated orders' totals from the old status buckets to the new ones
+    private List<SalesDelta> salesDeltas(Collection<Long> ids, OrderStatus from, OrderStatus to) {
+        List<SalesDelta> deltas = new ArrayList<>();
+        for (Object[] row : orderRepository.sumSalesByDay(ids)) {
+            LocalDate day = (LocalDate) row[0];
+            long orders = (Long) row[1];
+            BigDecimal revenue = (BigDecimal) row[2];
+            deltas.add(SalesDelta.forOrders(day, from, -orders, revenue.negate()));
+            deltas.add(SalesDelta.forOrders(day, to, orders, revenue));
+        }
+        for (Object[] row : orderItemRepository.sumSalesByDayAndCategory(ids)) {
+            LocalDate day = (LocalDate) row[0];
+            String category = (String) row[1];
+            long orders = (Long) row[2];
+            long units = (Long) row[3];
+            BigDecimal revenue = (BigDecimal) row[4];
+            deltas.add(SalesDelta.forCategory(day, from, category, -orders, -units, revenue.negate()));
+            deltas.add(SalesDelta.forCategory(day, to, category, orders, units, revenue));
+        }
+        return deltas;
+    }
+
+    private Map<Long, OrderStatus> lockStatuses(Collection<Long> ids) {
+        Map<Long, OrderStatus> statuses = new HashMap<>(ids.size() * 2);
+        for (Object[] row : orderRepository.lockStatusesByIdIn(ids)) {
+            statuses.put(((Number) row[0]).longValue(), OrderStatus.valueOf(row[1].toString()));
+        }
+        return statuses;
+    }
+}
@@ -0,0 +1,106 @@
+package org.example.ecommerce.service;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import jakarta.persistence.EntityManager;
+import lombok.extern.slf4j.Slf4j;
+import org.example.ecommerce.dto.ProductDTO;
+import org.example.ecommerce.entity.Product;
+import org.example.ecommerce.mapper.ProductMapper;
+import org.example.ecommerce.repository.ProductRepository;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.util.stream.Stream;
+
+/**
+ * Streams the active catalog straight to an output stream, one product per
+ * line in id order. Each entity is mapped, written and detached before the
+ * next row is read, so only the cursor's fetch window is ever in memory.
+ * Clients resume an interrupted export by passing the last id they received.
+ */
+@Service
+@Slf4j
+public class ProductExportService {
+    private static final int FLUSH_EVERY = 1000;
+
+    private final ProductRepository productRepository;
+    private final ProductMapper productMapper;
+    private final EntityManager entityManager;
+    private final ObjectWriter jsonWriter;
+
+    public ProductExportService(ProductRepository productRepository,
+                                ProductMapper productMapper,
+                                EntityManager entityManager,
+                                ObjectMapper objectMapper) {
+        this.productRepository = productRepository;
+        this.productMapper = productMapper;
+        this.entityManager = entityManager;
+        // Keep the response stream open across rows
+        this.jsonWriter = objectMapper.writerFor(ProductDTO.class)
+                .without(JsonGenerator.Feature.AUTO_CLOSE_TARGET);
+    }
+
+    @Transactional(readOnly = true)
+    public long export(long afterId, CatalogFormat format, OutputStream out) throws IOException {
+        Writer writer = new BufferedWriter(new OutputStreamWriter(out, StandardCharsets.UTF_8));
+        if (format == CatalogFormat.CSV) {
+            writer.write(CatalogFormat.CSV_HEADER);
+            writer.write('\n');
+        }
+
+        long written = 0;
+        try (Stream<Product> products = productRepository.streamActiveAfter(afterId)) {
+            for (Product product : (Iterable<Product>) products::iterator) {
+                ProductDTO dto = productMapper.toDto(product);
+                entityManager.detach(product);
+                if (format == CatalogFormat.CSV) {
+                    writeCsv(writer, dto);
+                } else {
+                    jsonWriter.writeValue(writer, dto);
+                }
+                writer.write('\n');
+                if (++written % FLUSH_EVERY == 0) {
+                    writer.flush();
+                }
+            }
+        }
+        writer.flush();
+        log.info("Exported {} products after id {} as {}", written, afterId, format);
+        return written;
+    }
+
+    private static void writeCsv(Writer writer, ProductDTO dto) throws IOException {
+        writer.write(String.valueOf(dto.getId()));
+        writer.write(',');
+        writer.write(csv(dto.getName()));
+        writer.write(',');
+        writer.write(csv(dto.getDescription()));
+        writer.write(',');
+        writer.write(dto.getPrice() != null ? dto.getPrice().toPlainString() : "");
+        writer.write(',');
+        writer.write(dto.getStock() != null ? dto.getStock().toString() : "");
+        writer.write(',');
+        writer.write(csv(dto.getCategory()));
+        writer.write(',');
+        writer.write(csv(dto.getImageUrl()));
+    }
+
+    private static String csv(String value) {
+        if (value == null) {
+            return "";
+        }
+        if (value.indexOf(',') < 0 && value.indexOf('"') < 0
+                && value.indexOf('\n') < 0 && value.indexOf('\r') < 0) {
+            return value;
+        }
+        return '"' + value.replace("\"", "\"\"") + '"';
+    }
+}
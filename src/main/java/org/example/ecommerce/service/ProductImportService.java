@@ -0,0 +1,350 @@
+package org.example.ecommerce.service;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectReader;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceException;
+import jakarta.validation.ConstraintViolation;
+import jakarta.validation.Validator;
+import lombok.extern.slf4j.Slf4j;
+import org.example.ecommerce.dto.CreateProductRequest;
+import org.example.ecommerce.dto.ImportResult;
+import org.example.ecommerce.dto.ImportRowError;
+import org.example.ecommerce.dto.ProductDTO;
+import org.example.ecommerce.entity.Product;
+import org.example.ecommerce.event.ProductsImportedEvent;
+import org.example.ecommerce.mapper.ProductMapper;
+import org.hibernate.Session;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.core.NestedExceptionUtils;
+import org.springframework.dao.DataAccessException;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Set;
+import java.util.function.Function;
+
+/**
+ * Bulk catalog import from NDJSON or CSV (columns as in {@link CatalogFormat#CSV_COLUMNS},
+ * optional header row). CSV rows may start with an id column, as the export
+ * writes them; the id is ignored and every row becomes a new product. Quoted CSV
+ * fields may span lines, as exported descriptions with line breaks do.
+ * The upload is read as a stream and handled in chunks:
+ * each chunk is validated in parallel, its valid rows inserted in JDBC batches
+ * in one transaction, and a single {@link ProductsImportedEvent} updates the
+ * search index and product page caches for the whole chunk. Invalid rows are
+ * skipped and reported by line number; the rest of the upload still goes in.
+ * A chunk the database rejects is retried row by row, so only the rows it
+ * refuses are reported.
+ */
+@Service
+@Slf4j
+public class ProductImportService {
+    private static final int MAX_REPORTED_ERRORS = 1000;
+
+    private final EntityManager entityManager;
+    private final TransactionTemplate transactionTemplate;
+    private final Validator validator;
+    private final ProductMapper productMapper;
+    private final ApplicationEventPublisher eventPublisher;
+    private final ObjectReader jsonReader;
+    private final int chunkSize;
+    private final int batchSize;
+
+    public ProductImportService(EntityManager entityManager,
+                                PlatformTransactionManager transactionManager,
+                                Validator validator,
+                                ProductMapper productMapper,
+                                ApplicationEventPublisher eventPublisher,
+                                ObjectMapper objectMapper,
+                                @Value("${app.import.chunk-size:2000}") int chunkSize,
+                                @Value("${app.import.batch-size:500}") int batchSize) {
+        this.entityManager = entityManager;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.validator = validator;
+        this.productMapper = productMapper;
+        this.eventPublisher = eventPublisher;
+        this.jsonReader = objectMapper.readerFor(CreateProductRequest.class);
+        this.chunkSize = chunkSize;
+        this.batchSize = batchSize;
+    }
+
+    public ImportResult importProducts(CatalogFormat format, InputStream in) throws IOException {
+        Progress progress = new Progress();
+        List<Row> chunk = new ArrayList<>(chunkSize);
+        RecordReader reader = new RecordReader(
+                new BufferedReader(new InputStreamReader(in, StandardCharsets.UTF_8)), format == CatalogFormat.CSV);
+
+        String line;
+        while ((line = reader.next()) != null) {
+            long lineNumber = reader.line;
+            if (line.isBlank()) {
+                continue;
+            }
+            if (format == CatalogFormat.CSV && lineNumber == 1 && isCsvHeader(line.trim())) {
+                continue;
+            }
+            progress.received++;
+            try {
+                chunk.add(new Row(lineNumber, format == CatalogFormat.CSV ? parseCsv(line) : parseJson(line)));
+            } catch (IllegalArgumentException e) {
+                progress.fail(lineNumber, List.of("Malformed row: " + e.getMessage()));
+            }
+            if (chunk.size() == chunkSize) {
+                importChunk(chunk, progress);
+                chunk = new ArrayList<>(chunkSize);
+            }
+        }
+        if (!chunk.isEmpty()) {
+            importChunk(chunk, progress);
+        }
+
+        // Parse failures are recorded on read, validation failures per chunk
+        progress.errors.sort(Comparator.comparingLong(ImportRowError::getLine));
+        log.info("Imported {} of {} products, {} rejected", progress.imported, progress.received, progress.failed);
+        return new ImportResult(progress.received, progress.imported, progress.failed, progress.errors);
+    }
+
+    private void importChunk(List<Row> chunk, Progress progress) {
+        // Bean validation is CPU-only and the validator is thread-safe
+        List<Set<ConstraintViolation<CreateProductRequest>>> violations = chunk.parallelStream()
+                .map(row -> validator.validate(row.request()))
+                .toList();
+
+        List<Row> valid = new ArrayList<>(chunk.size());
+        for (int i = 0; i < chunk.size(); i++) {
+            if (violations.get(i).isEmpty()) {
+                valid.add(chunk.get(i));
+            } else {
+                progress.fail(chunk.get(i).line(), violations.get(i).stream()
+                        .map(violation -> violation.getPropertyPath() + ": " + violation.getMessage())
+                        .sorted()
+                        .toList());
+            }
+        }
+        if (valid.isEmpty()) {
+            return;
+        }
+
+        try {
+            transactionTemplate.executeWithoutResult(status -> insert(valid));
+            progress.imported += valid.size();
+        } catch (DataAccessException | PersistenceException e) {
+            // Flushes through the shared EntityManager throw untranslated JPA exceptions
+            log.warn("Import batch of {} rows failed, retrying row by row: {}", valid.size(), e.getMessage());
+            for (Row row : valid) {
+                importRow(row, progress);
+            }
+        }
+    }
+
+    // Only reached when a chunk fails, so the rows the database accepts still go in
+    private void importRow(Row row, Progress progress) {
+        try {
+            transactionTemplate.executeWithoutResult(status -> insert(List.of(row)));
+            progress.imported++;
+        } catch (DataAccessException | PersistenceException e) {
+            String cause = NestedExceptionUtils.getMostSpecificCause(e).getMessage();
+            progress.fail(row.line(), List.of("Not stored: " + cause));
+        }
+    }
+
+    private void insert(List<Row> rows) {
+        entityManager.unwrap(Session.class).setJdbcBatchSize(batchSize);
+        List<ProductDTO> imported = new ArrayList<>(rows.size());
+        List<Product> pending = new ArrayList<>(batchSize);
+
+        for (Row row : rows) {
+            CreateProductRequest request = row.request();
+            Product product = Product.builder()
+                    .name(request.getName())
+                    .description(request.getDescription())
+                    .price(request.getPrice())
+                    .stock(request.getStock())
+                    .category(request.getCategory())
+                    .imageUrl(request.getImageUrl())
+                    .active(true)
+                    .build();
+            entityManager.persist(product);
+            pending.add(product);
+
+            // Flush each JDBC batch and drop it from the persistence context
+            if (pending.size() == batchSize) {
+                flush(pending, imported);
+            }
+        }
+        flush(pending, imported);
+
+        eventPublisher.publishEvent(new ProductsImportedEvent(imported));
+    }
+
+    private void flush(List<Product> pending, List<ProductDTO> imported) {
+        entityManager.flush();
+        for (Product product : pending) {
+            imported.add(productMapper.toDto(product));
+        }
+        entityManager.clear();
+        pending.clear();
+    }
+
+    private CreateProductRequest parseJson(String line) {
+        try {
+            return jsonReader.readValue(line);
+        } catch (JsonProcessingException e) {
+            throw new IllegalArgumentException(e.getOriginalMessage());
+        }
+    }
+
+    private static boolean isCsvHeader(String line) {
+        return line.equals(CatalogFormat.CSV_COLUMNS) || line.equals(CatalogFormat.CSV_HEADER);
+    }
+
+    private static CreateProductRequest parseCsv(String line) {
+        List<String> fields = splitCsv(line);
+        if (fields.size() == 7) {
+            // Exported rows lead with the product id
+            fields = fields.subList(1, 7);
+        }
+        if (fields.size() != 6) {
+            throw new IllegalArgumentException("expected 6 columns (" + CatalogFormat.CSV_COLUMNS
+                    + "), or 7 with a leading id, found " + fields.size());
+        }
+        return new CreateProductRequest(
+                emptyToNull(fields.get(0)),
+                emptyToNull(fields.get(1)),
+                fields.get(2).isEmpty() ? null : number(fields.get(2), "price", BigDecimal::new),
+                fields.get(3).isEmpty() ? null : number(fields.get(3), "stock", Integer::valueOf),
+                emptyToNull(fields.get(4)),
+                emptyToNull(fields.get(5)));
+    }
+
+    // RFC 4180 fields of one record: quoted fields may contain commas, line breaks and doubled quotes
+    private static List<String> splitCsv(String line) {
+        List<String> fields = new ArrayList<>(6);
+        StringBuilder field = new StringBuilder();
+        boolean quoted = false;
+        for (int i = 0; i < line.length(); i++) {
+            char c = line.charAt(i);
+            if (quoted) {
+                if (c == '"' && i + 1 < line.length() && line.charAt(i + 1) == '"') {
+                    field.append('"');
+                    i++;
+                } else if (c == '"') {
+                    quoted = false;
+                } else {
+                    field.append(c);
+                }
+            } else if (c == '"') {
+                quoted = true;
+            } else if (c == ',') {
+                fields.add(field.toString());
+                field.setLength(0);
+            } else {
+                field.append(c);
+            }
+        }
+        if (quoted) {
+            throw new IllegalArgumentException("unterminated quoted field");
+        }
+        fields.add(field.toString());
+        return fields;
+    }
+
+    private static <T> T number(String value, String column, Function<String, T> parser) {
+        try {
+            return parser.apply(value.trim());
+        } catch (NumberFormatException e) {
+            throw new IllegalArgumentException(column + " is not a number: " + value);
+        }
+    }
+
+    private static String emptyToNull(String value) {
+        return value.isEmpty() ? null : value;
+    }
+
+    private record Row(long line, CreateProductRequest request) {
+    }
+
+    /**
+     * Splits the upload into records: one per line for NDJSON, while a CSV record
+     * runs on past line breaks inside a quoted field.
+     */
+    private static class RecordReader {
+        private final BufferedReader reader;
+        private final boolean csv;
+        private final StringBuilder record = new StringBuilder();
+        private long linesRead;
+        // First line of the record last returned
+        long line;
+
+        RecordReader(BufferedReader reader, boolean csv) {
+            this.reader = reader;
+            this.csv = csv;
+        }
+
+        String next() throws IOException {
+            line = linesRead + 1;
+            if (!csv) {
+                String next = reader.readLine();
+                if (next != null) {
+                    linesRead++;
+                }
+                return next;
+            }
+
+            record.setLength(0);
+            boolean quoted = false;
+            int c;
+            while ((c = reader.read()) != -1) {
+                if (!quoted && (c == '\n' || c == '\r')) {
+                    if (c == '\r') {
+                        reader.mark(1);
+                        if (reader.read() != '\n') {
+                            reader.reset();
+                        }
+                    }
+                    linesRead++;
+                    return record.toString();
+                }
+                if (c == '"') {
+                    // A doubled quote toggles twice and leaves the state unchanged
+                    quoted = !quoted;
+                } else if (c == '\n') {
+                    linesRead++;
+                }
+                record.append((char) c);
+            }
+            if (record.isEmpty()) {
+                return null;
+            }
+            linesRead++;
+            return record.toString();
+        }
+    }
+
+    private static class Progress {
+        long received;
+        long imported;
+        long failed;
+        final List<ImportRowError> errors = new ArrayList<>();
+
+        void fail(long line, List<String> messages) {
+            failed++;
+            if (errors.size() < MAX_REPORTED_ERRORS) {
+                errors.add(new ImportRowError(line, messages));
+            }
+        }
+    }
+}
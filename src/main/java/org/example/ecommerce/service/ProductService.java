@@ -1,77 +1,129 @@
 package org.example.ecommerce.service;
 
 import lombok.extern.slf4j.Slf4j;
+import org.example.ecommerce.cache.ProductCache;
 import org.example.ecommerce.dto.CreateProductRequest;
+import org.example.ecommerce.dto.CursorPage;
 import org.example.ecommerce.dto.PagedResponse;
 import org.example.ecommerce.dto.ProductDTO;
 import org.example.ecommerce.dto.ProductSearchCriteria;
 import org.example.ecommerce.entity.Product;
+import org.example.ecommerce.event.ProductChangedEvent;
 import org.example.ecommerce.exception.BusinessException;
 import org.example.ecommerce.exception.ResourceNotFoundException;
+import org.example.ecommerce.mapper.ProductMapper;
 import org.example.ecommerce.repository.ProductRepository;
-import org.modelmapper.ModelMapper;
+import org.example.ecommerce.repository.ProductSpecifications;
+import org.example.ecommerce.search.ProductSearchIndex;
+import org.springframework.beans.factory.ObjectProvider;
 import org.springframework.cache.annotation.CacheEvict;
 import org.springframework.cache.annotation.Cacheable;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.data.domain.Limit;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.domain.Sort;
+import org.springframework.data.domain.Window;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
 import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.function.Function;
+import java.util.function.Supplier;
 import java.util.stream.Collectors;
 
 @Service
 @Slf4j
 @Transactional
 public class ProductService {
-    private final ProductRepository productRepository;
-    private final ModelMapper modelMapper;
+    private static final Set<String> SORTABLE_PROPERTIES =
+            Set.of("id", "name", "price", "stock", "category", "createdAt");
 
-    public ProductService(ProductRepository productRepository, ModelMapper modelMapper) {
+    private final ProductRepository productRepository;
+    private final StockReservationService stockReservationService;
+    private final ProductMapper productMapper;
+    private final ProductSearchIndex searchIndex;
+    private final ApplicationEventPublisher eventPublisher;
+    private final ProductCache productCache;
+
+    public ProductService(ProductRepository productRepository,
+                          StockReservationService stockReservationService,
+                          ProductMapper productMapper,
+                          ObjectProvider<ProductSearchIndex> searchIndex,
+                          ApplicationEventPublisher eventPublisher,
+                          ProductCache productCache) {
         this.productRepository = productRepository;
-        this.modelMapper = modelMapper;
+        this.stockReservationService = stockReservationService;
+        this.productMapper = productMapper;
+        this.searchIndex = searchIndex.getIfAvailable();
+        this.eventPublisher = eventPublisher;
+        this.productCache = productCache;
     }
 
-    @Cacheable(value = "products", key = "#id")
+    // sync: concurrent misses for one id wait on a single load instead of each querying
+    @Cacheable(value = ProductCache.PRODUCTS, key = "#id", sync = true)
     @Transactional(readOnly = true)
     public ProductDTO getProduct(Long id) {
-        log.info("Fetching product with id: {}", id);
+        log.debug("Fetching product with id: {}", id);
         Product product = productRepository.findById(id)
                 .orElseThrow(() -> new ResourceNotFoundException("Product", "id", id));
-        return modelMapper.map(product, ProductDTO.class);
+        return productMapper.toDto(product);
     }
 
     @Transactional(readOnly = true)
     public PagedResponse<ProductDTO> getAllProducts(int page, int size, String sortBy, String direction) {
         Sort.Direction sortDirection = direction.equalsIgnoreCase("asc")
                 ? Sort.Direction.ASC : Sort.Direction.DESC;
-        Pageable pageable = PageRequest.of(page, size, Sort.by(sortDirection, sortBy));
+        Sort sort = Sort.by(sortDirection, sortBy);
+        Pageable pageable = PageRequest.of(page, size, sort);
 
-        Page<Product> products = productRepository.findByActiveTrue(pageable);
+        return cachedPage(sort, () -> mapToPagedResponse(productRepository.findByActiveTrue(pageable)),
+                "all", page, size, sort);
+    }
 
-        return mapToPagedResponse(products);
+    @Transactional(readOnly = true)
+    public CursorPage<ProductDTO> scrollProducts(String after, int size, String sortBy, String direction) {
+        KeysetCursor.checkSortable(sortBy);
+        Sort.Direction sortDirection = direction.equalsIgnoreCase("asc")
+                ? Sort.Direction.ASC : Sort.Direction.DESC;
+        // id breaks ties so the keyset is unique
+        Sort sort = Sort.by(sortDirection, sortBy).and(Sort.by(sortDirection, "id"));
+
+        Window<Product> products = productRepository.findByActiveTrue(
+                KeysetCursor.decode(after, sort), sort, Limit.of(size));
+
+        return KeysetCursor.toPage(products, sort, productMapper::toDto);
     }
 
     @Transactional(readOnly = true)
     public PagedResponse<ProductDTO> searchProducts(ProductSearchCriteria criteria,
-                                                    int page, int size) {
-        Pageable pageable = PageRequest.of(page, size);
-
-        Page<Product> products = productRepository.searchProducts(
-                criteria.getName(),
-                criteria.getCategory(),
-                criteria.getMinPrice(),
-                criteria.getMaxPrice(),
-                criteria.getActive(),
-                pageable
-        );
+                                                    int page, int size, Sort sort) {
+        // Free-text queries are ranked by the search index once it is built,
+        // unless the client asked for an explicit order
+        if (sort.isUnsorted() && searchIndex != null && searchIndex.isReady()
+                && ProductSearchIndex.isSearchable(criteria.getName())) {
+            return cachedPage(sort, () -> searchIndexed(criteria, page, size),
+                    "indexed", criteria, page, size);
+        }
+
+        for (Sort.Order order : sort) {
+            if (!SORTABLE_PROPERTIES.contains(order.getProperty())) {
+                throw new BusinessException("Cannot sort products by: " + order.getProperty());
+            }
+        }
+        Pageable pageable = PageRequest.of(page, size, sort.isSorted() ? sort : Sort.by("id"));
 
-        return mapToPagedResponse(products);
+        return cachedPage(sort, () -> mapToPagedResponse(productRepository.findAll(
+                        ProductSpecifications.matching(criteria), pageable)),
+                "search", criteria, page, size, pageable.getSort());
     }
 
-    @CacheEvict(value = "products", allEntries = true)
+    // A new product only changes list and search pages, which the catalog
+    // version bump published below takes care of
     public ProductDTO createProduct(CreateProductRequest request) {
         log.info("Creating product: {}", request.getName());
 
@@ -86,10 +138,12 @@ public class ProductService {
                 .build();
 
         Product saved = productRepository.save(product);
-        return modelMapper.map(saved, ProductDTO.class);
+        ProductDTO dto = productMapper.toDto(saved);
+        eventPublisher.publishEvent(new ProductChangedEvent(dto));
+        return dto;
     }
 
-    @CacheEvict(value = "products", key = "#id")
+    @CacheEvict(value = ProductCache.PRODUCTS, key = "#id")
     public ProductDTO updateProduct(Long id, CreateProductRequest request) {
         log.info("Updating product with id: {}", id);
 
@@ -103,11 +157,15 @@ public class ProductService {
         product.setCategory(request.getCategory());
         product.setImageUrl(request.getImageUrl());
 
-        Product updated = productRepository.save(product);
-        return modelMapper.map(updated, ProductDTO.class);
+        // Flushed so the returned version is the one the change produced
+        Product updated = productRepository.saveAndFlush(product);
+        stockReservationService.stockOverwritten(id);
+        ProductDTO dto = productMapper.toDto(updated);
+        eventPublisher.publishEvent(new ProductChangedEvent(dto));
+        return dto;
     }
 
-    @CacheEvict(value = "products", key = "#id")
+    @CacheEvict(value = ProductCache.PRODUCTS, key = "#id")
     public void deleteProduct(Long id) {
         log.info("Soft deleting product with id: {}", id);
 
@@ -115,19 +173,54 @@ public class ProductService {
                 .orElseThrow(() -> new ResourceNotFoundException("Product", "id", id));
 
         product.setActive(false);  // Soft delete
-        productRepository.save(product);
+        Product deleted = productRepository.save(product);
+        eventPublisher.publishEvent(new ProductChangedEvent(productMapper.toDto(deleted)));
     }
 
+    @CacheEvict(value = ProductCache.PRODUCTS, key = "#productId")
     public void decreaseStock(Long productId, Integer quantity) {
-        int updated = productRepository.decreaseStock(productId, quantity);
-        if (updated == 0) {
-            throw new BusinessException("Failed to decrease stock for product: " + productId);
+        stockReservationService.decrease(productId, quantity);
+    }
+
+    private PagedResponse<ProductDTO> cachedPage(Sort sort, Supplier<PagedResponse<ProductDTO>> loader,
+                                                 Object... keyParts) {
+        // Stock moves with every order without bumping the catalog version,
+        // so pages ordered by it are always read fresh
+        if (sort.getOrderFor("stock") != null) {
+            return loader.get();
         }
+        return productCache.getPage(productCache.pageKey(keyParts), loader,
+                ids -> productRepository.findAllById(ids).stream()
+                        .map(productMapper::toDto)
+                        .collect(Collectors.toList()));
+    }
+
+    private PagedResponse<ProductDTO> searchIndexed(ProductSearchCriteria criteria, int page, int size) {
+        ProductSearchIndex.SearchHits hits = searchIndex.search(criteria, page * size, size);
+
+        // Load the page in one query, then restore relevance order
+        Map<Long, Product> products = productRepository.findAllById(hits.getIds()).stream()
+                .collect(Collectors.toMap(Product::getId, Function.identity()));
+        List<ProductDTO> content = hits.getIds().stream()
+                .map(products::get)
+                .filter(Objects::nonNull)
+                .map(productMapper::toDto)
+                .collect(Collectors.toList());
+
+        int totalPages = (int) Math.ceil((double) hits.getTotal() / size);
+        return new PagedResponse<>(
+                content,
+                page,
+                size,
+                hits.getTotal(),
+                totalPages,
+                page >= totalPages - 1
+        );
     }
 
     private PagedResponse<ProductDTO> mapToPagedResponse(Page<Product> page) {
         List<ProductDTO> content = page.getContent().stream()
-                .map(p -> modelMapper.map(p, ProductDTO.class))
+                .map(productMapper::toDto)
                 .collect(Collectors.toList());
 
         return new PagedResponse<>(
@@ -0,0 +1,56 @@
+package org.example.ecommerce.service;
+
+import lombok.extern.slf4j.Slf4j;
+import org.example.ecommerce.dto.CategorySales;
+import org.example.ecommerce.dto.DailySales;
+import org.example.ecommerce.dto.StatusSales;
+import org.example.ecommerce.entity.OrderStatus;
+import org.example.ecommerce.exception.BusinessException;
+import org.example.ecommerce.repository.CategoryDailyStatsRepository;
+import org.example.ecommerce.repository.OrderDailyStatsRepository;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDate;
+import java.util.List;
+
+/**
+ * Dashboard figures read from the pre-aggregated daily buckets, so a query
+ * costs one row per day, status and category in range regardless of how many
+ * orders there are. Figures trail the orders by up to one aggregator flush.
+ * Sales by day and by category leave cancelled orders out.
+ */
+@Service
+@Slf4j
+@Transactional(readOnly = true)
+public class SalesStatsService {
+    private final OrderDailyStatsRepository orderDailyStatsRepository;
+    private final CategoryDailyStatsRepository categoryDailyStatsRepository;
+
+    public SalesStatsService(OrderDailyStatsRepository orderDailyStatsRepository,
+                             CategoryDailyStatsRepository categoryDailyStatsRepository) {
+        this.orderDailyStatsRepository = orderDailyStatsRepository;
+        this.categoryDailyStatsRepository = categoryDailyStatsRepository;
+    }
+
+    public List<StatusSales> getSalesByStatus(LocalDate from, LocalDate to) {
+        validateRange(from, to);
+        return orderDailyStatsRepository.sumByStatus(from, to);
+    }
+
+    public List<DailySales> getSalesByDay(LocalDate from, LocalDate to) {
+        validateRange(from, to);
+        return orderDailyStatsRepository.sumByDay(from, to, OrderStatus.CANCELLED);
+    }
+
+    public List<CategorySales> getSalesByCategory(LocalDate from, LocalDate to) {
+        validateRange(from, to);
+        return categoryDailyStatsRepository.sumByCategory(from, to, OrderStatus.CANCELLED);
+    }
+
+    private void validateRange(LocalDate from, LocalDate to) {
+        if (from.isAfter(to)) {
+            throw new BusinessException("from must not be after to");
+        }
+    }
+}
@@ -0,0 +1,107 @@
+package org.example.ecommerce.service;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.example.ecommerce.exception.BusinessException;
+import org.example.ecommerce.repository.ProductRepository;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+
+/**
+ * Reserves product stock with atomic conditional updates instead of a
+ * read-check-write on the entity, so concurrent orders on the same product
+ * neither oversell nor fail on the optimistic lock. When the in-memory
+ * inventory mode is enabled, admission is delegated to {@link InventoryLedger}.
+ */
+@Service
+@Slf4j
+@Transactional
+public class StockReservationService {
+    private final ProductRepository productRepository;
+    private final InventoryLedger inventoryLedger;
+    private final Counter rejections;
+
+    public StockReservationService(ProductRepository productRepository,
+                                   ObjectProvider<InventoryLedger> inventoryLedger,
+                                   MeterRegistry meterRegistry) {
+        this.productRepository = productRepository;
+        this.inventoryLedger = inventoryLedger.getIfAvailable();
+        this.rejections = Counter.builder("orders.stock.rejections")
+                .description("Order reservations rejected for insufficient stock")
+                .tag("mode", this.inventoryLedger != null ? "in_memory" : "direct")
+                .register(meterRegistry);
+    }
+
+    /**
+     * Whether order reservations are held in memory and written behind to
+     * {@code products.stock} from the order items instead of immediately.
+     */
+    public boolean isWriteBehind() {
+        return inventoryLedger != null;
+    }
+
+    /**
+     * Decreases stock for every product in {@code quantities} or for none of them.
+     * The conditional updates are sent as one JDBC batch in ascending product id
+     * order, so two multi-item orders always lock rows in the same sequence and
+     * cannot deadlock; a rejected line throws and rolls back the whole batch with
+     * the surrounding transaction.
+     */
+    public void reserve(Map<Long, Integer> quantities) {
+        if (inventoryLedger != null) {
+            try {
+                inventoryLedger.reserve(new TreeMap<>(quantities));
+            } catch (BusinessException e) {
+                rejections.increment();
+                throw e;
+            }
+            return;
+        }
+
+        List<Long> rejected = productRepository.decreaseStockBatch(new TreeMap<>(quantities));
+        if (!rejected.isEmpty()) {
+            rejections.increment();
+            log.info("Stock reservation rejected for products {}", rejected);
+            throw new BusinessException("Insufficient stock for product: " + rejected.get(0));
+        }
+    }
+
+    /**
+     * Decreases a single product's stock outside of an order; the row is always
+     * updated directly since there is no order item to journal the change.
+     */
+    public void decrease(Long productId, Integer quantity) {
+        if (inventoryLedger != null) {
+            inventoryLedger.reserve(new TreeMap<>(Map.of(productId, quantity)));
+        }
+
+        int updated = productRepository.decreaseStock(productId, quantity);
+        if (updated == 0) {
+            throw new BusinessException("Failed to decrease stock for product: " + productId);
+        }
+    }
+
+    /**
+     * Signals that a product's stock column was overwritten, so the in-memory
+     * counter reloads it once the current transaction commits.
+     */
+    public void stockOverwritten(Long productId) {
+        if (inventoryLedger == null) {
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                inventoryLedger.resync(productId);
+            }
+        });
+    }
+}
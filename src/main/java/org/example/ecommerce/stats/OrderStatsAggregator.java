@@ -0,0 +1,179 @@
+package org.example.ecommerce.stats;
+
+import jakarta.annotation.PreDestroy;
+import jakarta.persistence.EntityManager;
+import lombok.extern.slf4j.Slf4j;
+import org.example.ecommerce.entity.CategoryDailyStats;
+import org.example.ecommerce.entity.OrderDailyStats;
+import org.example.ecommerce.entity.OrderStatus;
+import org.example.ecommerce.event.OrderSalesChangedEvent;
+import org.example.ecommerce.repository.CategoryDailyStatsRepository;
+import org.example.ecommerce.repository.OrderDailyStatsRepository;
+import org.example.ecommerce.repository.OrderItemRepository;
+import org.example.ecommerce.repository.OrderRepository;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.dao.DataAccessException;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Keeps {@code order_daily_stats} and {@code category_daily_stats} in step with
+ * the orders table so the dashboard reads a handful of buckets instead of
+ * scanning orders.
+ * <p>
+ * Committed {@link OrderSalesChangedEvent}s are summed per bucket in memory and
+ * a scheduled job adds the sums to the tables, so concurrent orders never queue
+ * on the same statistics row. A graceful shutdown flushes what is still pending,
+ * so only a crash loses deltas; {@link #rebuild()} recomputes both tables from
+ * the orders to recover from one. It replaces what every node has flushed, so it
+ * runs at startup only where {@code app.stats.rebuild-on-startup} is on (one node,
+ * or a single-node deployment) and otherwise through the rebuild endpoint.
+ */
+@Component
+@Slf4j
+public class OrderStatsAggregator {
+    private final ConcurrentHashMap<Bucket, Totals> pending = new ConcurrentHashMap<>();
+    private final OrderRepository orderRepository;
+    private final OrderItemRepository orderItemRepository;
+    private final OrderDailyStatsRepository orderDailyStatsRepository;
+    private final CategoryDailyStatsRepository categoryDailyStatsRepository;
+    private final EntityManager entityManager;
+    private final TransactionTemplate transactionTemplate;
+    private final TransactionTemplate rebuildTemplate;
+    private final boolean rebuildOnStartup;
+
+    public OrderStatsAggregator(OrderRepository orderRepository,
+                                OrderItemRepository orderItemRepository,
+                                OrderDailyStatsRepository orderDailyStatsRepository,
+                                CategoryDailyStatsRepository categoryDailyStatsRepository,
+                                EntityManager entityManager,
+                                PlatformTransactionManager transactionManager,
+                                @Value("${app.stats.rebuild-on-startup:false}") boolean rebuildOnStartup) {
+        this.orderRepository = orderRepository;
+        this.orderItemRepository = orderItemRepository;
+        this.orderDailyStatsRepository = orderDailyStatsRepository;
+        this.categoryDailyStatsRepository = categoryDailyStatsRepository;
+        this.entityManager = entityManager;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.rebuildTemplate = new TransactionTemplate(transactionManager);
+        this.rebuildTemplate.setIsolationLevel(TransactionDefinition.ISOLATION_REPEATABLE_READ);
+        this.rebuildOnStartup = rebuildOnStartup;
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onOrderSalesChanged(OrderSalesChangedEvent event) {
+        for (SalesDelta delta : event.getDeltas()) {
+            Bucket bucket = new Bucket(delta.day(), delta.status(), delta.category());
+            pending.merge(bucket, new Totals(delta.orders(), delta.units(), delta.revenue()), Totals::plus);
+        }
+    }
+
+    @Scheduled(fixedDelayString = "${app.stats.flush-interval-ms:5000}")
+    public synchronized void flush() {
+        Map<Bucket, Totals> batch = drain();
+        if (batch.isEmpty()) {
+            return;
+        }
+        try {
+            transactionTemplate.executeWithoutResult(status -> batch.forEach(this::apply));
+            log.debug("Flushed {} order statistics buckets", batch.size());
+        } catch (DataAccessException e) {
+            // Typically another node created the same bucket first; retried on the next run
+            log.warn("Order statistics flush failed, keeping {} buckets for the next run: {}",
+                    batch.size(), e.getMessage());
+            batch.forEach((bucket, totals) -> pending.merge(bucket, totals, Totals::plus));
+        }
+    }
+
+    @PreDestroy
+    public void flushOnShutdown() {
+        flush();
+    }
+
+    /**
+     * Replaces both statistics tables with a recompute from the orders. Counts
+     * are exact when no orders change meanwhile. Pending deltas are dropped
+     * once the recompute has read the orders, since it already covers them;
+     * deltas committed after that read are kept for the next flush.
+     */
+    public synchronized void rebuild() {
+        long start = System.currentTimeMillis();
+        int buckets = rebuildTemplate.execute(status -> {
+            List<Object[]> orderRows = orderRepository.sumSalesByDayAndStatus();
+            List<Object[]> categoryRows = orderItemRepository.sumSalesByDayCategoryAndStatus();
+            pending.clear();
+
+            orderDailyStatsRepository.deleteAllInBatch();
+            categoryDailyStatsRepository.deleteAllInBatch();
+
+            int count = 0;
+            for (Object[] row : orderRows) {
+                entityManager.persist(new OrderDailyStats((LocalDate) row[0], (OrderStatus) row[1],
+                        (Long) row[2], (BigDecimal) row[3]));
+                count++;
+            }
+            for (Object[] row : categoryRows) {
+                String category = row[1] == null ? SalesDelta.NO_CATEGORY : (String) row[1];
+                entityManager.persist(new CategoryDailyStats((LocalDate) row[0], category, (OrderStatus) row[2],
+                        (Long) row[3], (Long) row[4], (BigDecimal) row[5]));
+                count++;
+            }
+            return count;
+        });
+        log.info("Rebuilt order statistics: {} buckets in {} ms", buckets, System.currentTimeMillis() - start);
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void rebuildOnStartup() {
+        if (rebuildOnStartup) {
+            rebuild();
+        }
+    }
+
+    private Map<Bucket, Totals> drain() {
+        Map<Bucket, Totals> batch = new HashMap<>();
+        for (Bucket bucket : pending.keySet()) {
+            Totals totals = pending.remove(bucket);
+            if (totals != null) {
+                batch.put(bucket, totals);
+            }
+        }
+        return batch;
+    }
+
+    private void apply(Bucket bucket, Totals totals) {
+        if (bucket.category() == null) {
+            if (orderDailyStatsRepository.addTotals(bucket.day(), bucket.status(),
+                    totals.orders(), totals.revenue()) == 0) {
+                entityManager.persist(new OrderDailyStats(bucket.day(), bucket.status(),
+                        totals.orders(), totals.revenue()));
+            }
+        } else if (categoryDailyStatsRepository.addTotals(bucket.day(), bucket.category(), bucket.status(),
+                totals.orders(), totals.units(), totals.revenue()) == 0) {
+            entityManager.persist(new CategoryDailyStats(bucket.day(), bucket.category(), bucket.status(),
+                    totals.orders(), totals.units(), totals.revenue()));
+        }
+    }
+
+    private record Bucket(LocalDate day, OrderStatus status, String category) {
+    }
+
+    private record Totals(long orders, long units, BigDecimal revenue) {
+        Totals plus(Totals other) {
+            return new Totals(orders + other.orders, units + other.units, revenue.add(other.revenue));
+        }
+    }
+}
@@ -0,0 +1,60 @@
+package org.example.ecommerce.stats;
+
+import org.example.ecommerce.entity.Order;
+import org.example.ecommerce.entity.OrderItem;
+import org.example.ecommerce.entity.OrderStatus;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * A signed change to one statistics bucket: the order-level bucket of a
+ * (day, status) when {@code category} is null, otherwise the per-category one.
+ */
+public record SalesDelta(LocalDate day, OrderStatus status, String category,
+                         long orders, long units, BigDecimal revenue) {
+    // Products without a category are counted under this one
+    public static final String NO_CATEGORY = "";
+
+    public static SalesDelta forOrders(LocalDate day, OrderStatus status, long orders, BigDecimal revenue) {
+        return new SalesDelta(day, status, null, orders, 0, revenue);
+    }
+
+    public static SalesDelta forCategory(LocalDate day, OrderStatus status, String category,
+                                         long orders, long units, BigDecimal revenue) {
+        return new SalesDelta(day, status, category == null ? NO_CATEGORY : category, orders, units, revenue);
+    }
+
+    /**
+     * Adds ({@code sign} 1) or removes ({@code sign} -1) one order under
+     * {@code status}. Needs the items and their products loaded. Orders without
+     * a creation time belong to no day and are left out of the statistics.
+     */
+    public static List<SalesDelta> of(Order order, OrderStatus status, int sign) {
+        if (order.getCreatedAt() == null) {
+            return List.of();
+        }
+        LocalDate day = order.getCreatedAt().toLocalDate();
+        BigDecimal factor = BigDecimal.valueOf(sign);
+
+        List<SalesDelta> deltas = new ArrayList<>();
+        deltas.add(forOrders(day, status, sign, order.getTotalAmount().multiply(factor)));
+
+        Map<String, Long> units = new LinkedHashMap<>();
+        Map<String, BigDecimal> revenue = new LinkedHashMap<>();
+        for (OrderItem item : order.getItems()) {
+            String category = item.getProduct().getCategory() == null ? NO_CATEGORY : item.getProduct().getCategory();
+            units.merge(category, (long) item.getQuantity(), Long::sum);
+            revenue.merge(category, item.getPrice().multiply(BigDecimal.valueOf(item.getQuantity())), BigDecimal::add);
+        }
+        for (String category : units.keySet()) {
+            deltas.add(forCategory(day, status, category, sign, sign * units.get(category),
+                    revenue.get(category).multiply(factor)));
+        }
+        return deltas;
+    }
+}
@@ -0,0 +1,97 @@
+-- One-off PostgreSQL migration for databases created while entity ids were
+-- IDENTITY columns. Entities now draw ids from pooled sequences
+-- (allocationSize = 50): Hibernate reserves the block (value - 49 .. value],
+-- so each sequence must restart at MAX(id) + 50 to never hand out a used id.
+--
+-- It also adds the columns, tables and indexes introduced alongside, with
+-- defaults or backfills for existing rows, so the schema matches the
+-- entities. Every step is safe to re-run.
+--
+-- Run with the application stopped:
+--   psql -d ecommerce -v ON_ERROR_STOP=1 -f identity-to-sequences.sql
+
+BEGIN;
+
+DO $$
+DECLARE
+    t RECORD;
+    next_value BIGINT;
+BEGIN
+    FOR t IN SELECT * FROM (VALUES
+            ('products', 'products_seq'),
+            ('orders', 'orders_seq'),
+            ('order_items', 'order_items_seq'),
+            ('users', 'users_seq')) AS m(table_name, sequence_name)
+    LOOP
+        -- Ids are now assigned by Hibernate; drop the column-side generator
+        IF EXISTS (SELECT 1 FROM information_schema.columns
+                   WHERE table_name = t.table_name AND column_name = 'id' AND is_identity = 'YES') THEN
+            EXECUTE format('ALTER TABLE %I ALTER COLUMN id DROP IDENTITY', t.table_name);
+        END IF;
+        EXECUTE format('ALTER TABLE %I ALTER COLUMN id DROP DEFAULT', t.table_name);
+
+        EXECUTE format('CREATE SEQUENCE IF NOT EXISTS %I INCREMENT BY 50', t.sequence_name);
+        EXECUTE format('SELECT COALESCE(MAX(id), 0) + 50 FROM %I', t.table_name) INTO next_value;
+        PERFORM setval(t.sequence_name, next_value, false);
+    END LOOP;
+END
+$$;
+
+-- Rows written before the in-memory inventory ledger had their stock
+-- decremented in the same transaction, so nothing is owed to products.stock
+ALTER TABLE order_items ADD COLUMN IF NOT EXISTS stock_applied BOOLEAN NOT NULL DEFAULT TRUE;
+ALTER TABLE order_items ALTER COLUMN stock_applied DROP DEFAULT;
+CREATE INDEX IF NOT EXISTS idx_order_items_stock_applied ON order_items (stock_applied);
+
+-- Daily sales statistics bucket orders by created_at
+UPDATE orders SET created_at = COALESCE(updated_at, now()) WHERE created_at IS NULL;
+
+CREATE INDEX IF NOT EXISTS idx_active_category_price ON products (active, category, price);
+CREATE INDEX IF NOT EXISTS idx_active_price ON products (active, price);
+
+CREATE TABLE IF NOT EXISTS idempotency_keys (
+    idempotency_key VARCHAR(255) NOT NULL PRIMARY KEY,
+    request_hash    VARCHAR(64)  NOT NULL,
+    order_id        BIGINT       NOT NULL,
+    created_at      TIMESTAMP(6) NOT NULL
+);
+CREATE INDEX IF NOT EXISTS idx_idempotency_keys_created_at ON idempotency_keys (created_at);
+
+CREATE SEQUENCE IF NOT EXISTS order_intakes_seq INCREMENT BY 50;
+CREATE TABLE IF NOT EXISTS order_intakes (
+    id              BIGINT        NOT NULL PRIMARY KEY,
+    payload         TEXT          NOT NULL,
+    idempotency_key VARCHAR(255),
+    request_hash    VARCHAR(64),
+    status          VARCHAR(20)   NOT NULL CHECK (status IN ('QUEUED','PROCESSING','COMPLETED','REJECTED')),
+    order_id        BIGINT,
+    error           VARCHAR(1000),
+    attempts        INTEGER       NOT NULL,
+    claim_token     VARCHAR(36),
+    claimed_at      TIMESTAMP(6),
+    created_at      TIMESTAMP(6)  NOT NULL,
+    completed_at    TIMESTAMP(6),
+    CONSTRAINT uk_order_intakes_idempotency_key UNIQUE (idempotency_key)
+);
+CREATE INDEX IF NOT EXISTS idx_order_intakes_status_claimed ON order_intakes (status, claimed_at);
+
+-- Created empty; fill them once with POST /api/v1/stats/sales/rebuild, or by starting
+-- a single node with app.stats.rebuild-on-startup=true
+CREATE TABLE IF NOT EXISTS order_daily_stats (
+    stats_date  DATE          NOT NULL,
+    status      VARCHAR(255)  NOT NULL CHECK (status IN ('PENDING','PROCESSING','SHIPPED','DELIVERED','CANCELLED')),
+    order_count BIGINT        NOT NULL,
+    revenue     NUMERIC(38,2) NOT NULL,
+    PRIMARY KEY (stats_date, status)
+);
+CREATE TABLE IF NOT EXISTS category_daily_stats (
+    stats_date  DATE          NOT NULL,
+    category    VARCHAR(255)  NOT NULL,
+    status      VARCHAR(255)  NOT NULL CHECK (status IN ('PENDING','PROCESSING','SHIPPED','DELIVERED','CANCELLED')),
+    order_count BIGINT        NOT NULL,
+    units       BIGINT        NOT NULL,
+    revenue     NUMERIC(38,2) NOT NULL,
+    PRIMARY KEY (stats_date, category, status)
+);
+
+COMMIT;
@@ -0,0 +1,66 @@
+package org.example.ecommerce;
+
+import org.example.ecommerce.dto.CreateOrderRequest;
+import org.example.ecommerce.dto.CreateProductRequest;
+import org.example.ecommerce.dto.OrderItemRequest;
+import org.example.ecommerce.entity.User;
+import org.example.ecommerce.entity.UserRole;
+import org.example.ecommerce.repository.UserRepository;
+import org.example.ecommerce.service.ProductService;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.math.BigDecimal;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Base for tests that run against the whole application on an in-memory H2
+ * database. All subclasses share one context and one database, so each test
+ * creates its own users and products instead of relying on a clean schema.
+ * MockMvc is configured here rather than per test class, so web tests do not
+ * start a second context on the same database.
+ */
+@SpringBootTest
+@AutoConfigureMockMvc
+@ActiveProfiles("test")
+public abstract class IntegrationTest {
+    private static final AtomicLong SEQUENCE = new AtomicLong();
+
+    @Autowired
+    protected UserRepository userRepository;
+
+    @Autowired
+    protected ProductService productService;
+
+    protected Long createUser() {
+        long n = SEQUENCE.incrementAndGet();
+        return userRepository.save(User.builder()
+                .email("user" + n + "@test.example")
+                .password("password")
+                .firstName("Test")
+                .lastName("User " + n)
+                .role(UserRole.CUSTOMER)
+                .build()).getId();
+    }
+
+    protected Long createProduct(int stock) {
+        return createProduct(stock, BigDecimal.TEN, "category");
+    }
+
+    protected Long createProduct(int stock, BigDecimal price, String category) {
+        long n = SEQUENCE.incrementAndGet();
+        return productService.createProduct(new CreateProductRequest(
+                "Product " + n, "Test product " + n, price, stock, category, null)).getId();
+    }
+
+    protected static CreateOrderRequest orderRequest(Long userId, Map<Long, Integer> quantities) {
+        List<OrderItemRequest> items = quantities.entrySet().stream()
+                .map(line -> new OrderItemRequest(line.getKey(), line.getValue()))
+                .toList();
+        return new CreateOrderRequest(userId, items, "1 Test Street");
+    }
+}
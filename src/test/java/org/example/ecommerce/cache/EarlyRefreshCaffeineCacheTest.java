@@ -0,0 +1,139 @@
+package org.example.ecommerce.cache;
+
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.Expiry;
+import com.github.benmanes.caffeine.cache.stats.ConcurrentStatsCounter;
+import com.github.benmanes.caffeine.cache.stats.StatsCounter;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class EarlyRefreshCaffeineCacheTest {
+    private final StatsCounter stats = new ConcurrentStatsCounter();
+
+    private EarlyRefreshCaffeineCache cache(Duration ttl, double jitter, Duration earlyRefresh) {
+        return new EarlyRefreshCaffeineCache("test",
+                Caffeine.newBuilder()
+                        // Refreshes run on the calling thread so tests can observe them
+                        .executor(Runnable::run)
+                        .expireAfter(EarlyRefreshCaffeineCache.jitteredExpiry(ttl, jitter))
+                        .recordStats(() -> stats)
+                        .build(key -> "refreshed-" + key),
+                earlyRefresh,
+                stats);
+    }
+
+    @Test
+    void jitterShortensEachEntryByUpToTheConfiguredFraction() {
+        long ttl = Duration.ofMinutes(10).toNanos();
+        Expiry<Object, Object> expiry = EarlyRefreshCaffeineCache.jitteredExpiry(Duration.ofMinutes(10), 0.2);
+
+        Set<Long> lifetimes = new HashSet<>();
+        for (int i = 0; i < 1000; i++) {
+            long lifetime = expiry.expireAfterCreate(i, "value", 0);
+            assertThat(lifetime).isGreaterThan(ttl - ttl / 5).isLessThanOrEqualTo(ttl);
+            lifetimes.add(lifetime);
+        }
+        assertThat(lifetimes).hasSizeGreaterThan(900);
+
+        assertThat(EarlyRefreshCaffeineCache.jitteredExpiry(Duration.ofMinutes(10), 0)
+                .expireAfterCreate(1, "value", 0)).isEqualTo(ttl);
+    }
+
+    @Test
+    void hitCloseToExpiryRefreshesInTheBackground() {
+        // A window far longer than the TTL puts every entry inside it
+        EarlyRefreshCaffeineCache cache = cache(Duration.ofMinutes(10), 0, Duration.ofDays(3650));
+        cache.put(1L, "original");
+
+        assertThat(cache.get(1L, String.class)).isEqualTo("original");
+        assertThat(cache.get(1L, String.class)).isEqualTo("refreshed-1");
+    }
+
+    @Test
+    void hitDoesNotRefreshWithoutAWindow() {
+        EarlyRefreshCaffeineCache cache = cache(Duration.ofMillis(1), 0, Duration.ZERO);
+        cache.put(1L, "original");
+
+        for (int i = 0; i < 10; i++) {
+            cache.get(1L);
+        }
+        assertThat(stats.snapshot().loadCount()).isZero();
+    }
+
+    @Test
+    void concurrentMissesShareOneLoad() throws Exception {
+        EarlyRefreshCaffeineCache cache = cache(Duration.ofMinutes(10), 0, Duration.ZERO);
+        AtomicInteger loads = new AtomicInteger();
+        CountDownLatch loading = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+
+        CompletableFuture<String> first = CompletableFuture.supplyAsync(() -> cache.get(1L, () -> {
+            loads.incrementAndGet();
+            loading.countDown();
+            release.await();
+            return "loaded";
+        }));
+        assertThat(loading.await(5, TimeUnit.SECONDS)).isTrue();
+
+        CompletableFuture<String> second = new CompletableFuture<>();
+        Thread waiter = new Thread(() -> second.complete(cache.get(1L, () -> {
+            loads.incrementAndGet();
+            return "second load";
+        })));
+        waiter.start();
+        // Parked on the first caller's in-flight load
+        while (waiter.getState() != Thread.State.WAITING) {
+            assertThat(waiter.isAlive()).isTrue();
+            Thread.onSpinWait();
+        }
+        release.countDown();
+
+        assertThat(first.get(5, TimeUnit.SECONDS)).isEqualTo("loaded");
+        assertThat(second.get(5, TimeUnit.SECONDS)).isEqualTo("loaded");
+        assertThat(loads).hasValue(1);
+        assertThat(stats.snapshot().missCount()).isEqualTo(2);
+    }
+
+    @Test
+    void bulkLoadOnlyLoadsMissingKeys() {
+        EarlyRefreshCaffeineCache cache = cache(Duration.ofMinutes(10), 0, Duration.ZERO);
+        cache.put(1L, "cached");
+        List<Object> requested = new ArrayList<>();
+
+        Map<Object, Object> values = cache.getAll(List.of(1L, 2L), missing -> {
+            requested.addAll(missing);
+            return Map.of(2L, "loaded");
+        });
+
+        assertThat(values).containsEntry(1L, "cached").containsEntry(2L, "loaded");
+        assertThat(requested).containsExactly(2L);
+        assertThat(cache.get(2L, String.class)).isEqualTo("loaded");
+    }
+
+    @Test
+    void bulkLoadDoesNotCacheAKeyEvictedWhileLoading() {
+        EarlyRefreshCaffeineCache cache = cache(Duration.ofMinutes(10), 0, Duration.ZERO);
+
+        Map<Object, Object> values = cache.getAll(List.of(1L, 2L), missing -> {
+            // A writer commits and evicts key 1 after the load read it
+            cache.evict(1L);
+            return Map.of(1L, "stale", 2L, "fresh");
+        });
+
+        assertThat(values).containsEntry(1L, "stale").containsEntry(2L, "fresh");
+        assertThat(cache.get(1L)).isNull();
+        assertThat(cache.get(2L, String.class)).isEqualTo("fresh");
+    }
+}
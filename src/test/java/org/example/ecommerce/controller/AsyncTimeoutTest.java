@@ -0,0 +1,44 @@
+package org.example.ecommerce.controller;
+
+import org.example.ecommerce.IntegrationTest;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+
+import java.time.Duration;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.hamcrest.Matchers.containsString;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.asyncDispatch;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.content;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.request;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+class AsyncTimeoutTest extends IntegrationTest {
+    private static final long EXPORT_TIMEOUT = Duration.ofMinutes(30).toMillis();
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Test
+    void onlyTheExportGetsTheLongTimeout() throws Exception {
+        Long productId = createProduct(10);
+
+        MvcResult export = mockMvc.perform(get("/api/v1/products/export").param("format", "csv"))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+        assertThat(export.getRequest().getAsyncContext().getTimeout()).isEqualTo(EXPORT_TIMEOUT);
+        mockMvc.perform(asyncDispatch(export))
+                .andExpect(status().isOk())
+                .andExpect(header().string("Content-Type", "text/csv"))
+                .andExpect(content().string(containsString("Product")));
+
+        MvcResult read = mockMvc.perform(get("/api/v1/async/products/{id}", productId))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+        assertThat(read.getRequest().getAsyncContext().getTimeout()).isNotEqualTo(EXPORT_TIMEOUT);
+    }
+}
@@ -0,0 +1,97 @@
+package org.example.ecommerce.controller;
+
+import org.example.ecommerce.IntegrationTest;
+import org.example.ecommerce.entity.OrderStatus;
+import org.example.ecommerce.monitoring.QueryStats;
+import org.example.ecommerce.service.OrderService;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.HttpHeaders;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.request.MockHttpServletRequestBuilder;
+
+import java.util.Map;
+
+import static org.hamcrest.Matchers.not;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.content;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+class ConditionalGetTest extends IntegrationTest {
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private OrderService orderService;
+
+    @Test
+    void matchingProductETagGets304WithoutBodyOrQueries() throws Exception {
+        Long productId = createProduct(10);
+        String etag = etag(get("/api/v1/products/{id}", productId));
+
+        try (QueryStats.Scope scope = QueryStats.open()) {
+            mockMvc.perform(get("/api/v1/products/{id}", productId).header(HttpHeaders.IF_NONE_MATCH, etag))
+                    .andExpect(status().isNotModified())
+                    .andExpect(header().string(HttpHeaders.ETAG, etag))
+                    .andExpect(content().string(""));
+            scope.stats().assertStatements(0);
+        }
+    }
+
+    @Test
+    void productETagChangesWhenAnOrderTakesStock() throws Exception {
+        Long productId = createProduct(10);
+        String before = etag(get("/api/v1/products/{id}", productId));
+
+        orderService.createOrder(orderRequest(createUser(), Map.of(productId, 2)));
+
+        mockMvc.perform(get("/api/v1/products/{id}", productId).header(HttpHeaders.IF_NONE_MATCH, before))
+                .andExpect(status().isOk())
+                .andExpect(header().string(HttpHeaders.ETAG, not(before)))
+                .andExpect(jsonPath("$.stock").value(8));
+    }
+
+    @Test
+    void productPageETagChangesWithItsContent() throws Exception {
+        Long productId = createProduct(10);
+        String before = etag(newestProducts());
+        mockMvc.perform(newestProducts().header(HttpHeaders.IF_NONE_MATCH, before))
+                .andExpect(status().isNotModified());
+
+        orderService.createOrder(orderRequest(createUser(), Map.of(productId, 3)));
+
+        mockMvc.perform(newestProducts().header(HttpHeaders.IF_NONE_MATCH, before))
+                .andExpect(status().isOk())
+                .andExpect(header().string(HttpHeaders.ETAG, not(before)))
+                .andExpect(jsonPath("$.content[0].stock").value(7));
+    }
+
+    @Test
+    void orderETagChangesWithItsStatus() throws Exception {
+        Long orderId = orderService.createOrder(orderRequest(createUser(), Map.of(createProduct(10), 1))).getId();
+        String before = etag(get("/api/v1/orders/{id}", orderId));
+        mockMvc.perform(get("/api/v1/orders/{id}", orderId).header(HttpHeaders.IF_NONE_MATCH, before))
+                .andExpect(status().isNotModified());
+
+        orderService.updateOrderStatus(orderId, OrderStatus.PROCESSING);
+
+        mockMvc.perform(get("/api/v1/orders/{id}", orderId).header(HttpHeaders.IF_NONE_MATCH, before))
+                .andExpect(status().isOk())
+                .andExpect(header().string(HttpHeaders.ETAG, not(before)))
+                .andExpect(jsonPath("$.status").value("PROCESSING"));
+    }
+
+    // Newest first, so the page holds the product whatever other tests created
+    private static MockHttpServletRequestBuilder newestProducts() {
+        return get("/api/v1/products").param("direction", "desc").param("size", "5");
+    }
+
+    private String etag(MockHttpServletRequestBuilder request) throws Exception {
+        return mockMvc.perform(request)
+                .andExpect(status().isOk())
+                .andReturn().getResponse().getHeader(HttpHeaders.ETAG);
+    }
+}
@@ -0,0 +1,54 @@
+package org.example.ecommerce.controller;
+
+import org.example.ecommerce.IntegrationTest;
+import org.example.ecommerce.entity.OrderStatus;
+import org.example.ecommerce.service.OrderService;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.test.web.servlet.MockMvc;
+
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.hamcrest.Matchers.containsString;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.patch;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+class OrderControllerTest extends IntegrationTest {
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private OrderService orderService;
+
+    private Long orderId;
+
+    @BeforeEach
+    void setUp() {
+        orderId = orderService.createOrder(orderRequest(createUser(), Map.of(createProduct(10), 1))).getId();
+    }
+
+    @Test
+    void statusChangeFollowsTheLifecycle() throws Exception {
+        mockMvc.perform(patch("/api/v1/orders/{id}/status", orderId).param("status", "PENDING"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.status").value("PENDING"));
+
+        mockMvc.perform(patch("/api/v1/orders/{id}/status", orderId).param("status", "PROCESSING"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.status").value("PROCESSING"));
+    }
+
+    @Test
+    void statusChangeOutsideTheLifecycleIsRejected() throws Exception {
+        // Accepted before single-order changes were checked against OrderStatus.canTransitionTo
+        mockMvc.perform(patch("/api/v1/orders/{id}/status", orderId).param("status", "DELIVERED"))
+                .andExpect(status().isBadRequest())
+                .andExpect(jsonPath("$.message").value(containsString("from PENDING to DELIVERED")));
+
+        assertThat(orderService.getOrder(orderId).getStatus()).isEqualTo(OrderStatus.PENDING);
+    }
+}
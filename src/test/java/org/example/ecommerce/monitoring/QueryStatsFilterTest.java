@@ -0,0 +1,107 @@
+package org.example.ecommerce.monitoring;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.example.ecommerce.IntegrationTest;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.web.server.LocalServerPort;
+import org.springframework.test.context.TestPropertySource;
+
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.awaitility.Awaitility.await;
+
+// A real server, so async requests go through the container's async dispatch and listeners
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT)
+@TestPropertySource(properties = {
+        // Every request that runs a statement is flagged
+        "app.query-stats.max-statements=0"
+})
+class QueryStatsFilterTest extends IntegrationTest {
+    private final HttpClient client = HttpClient.newHttpClient();
+
+    @LocalServerPort
+    private int port;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @Test
+    void syncRequestsAreRecordedOnMetersRegisteredOncePerEndpoint() throws Exception {
+        String uri = "/api/v1/products/{id}";
+        Snapshot before = snapshot(uri);
+
+        get("/api/v1/products/" + createProduct(10));
+        get("/api/v1/products/" + createProduct(10));
+
+        awaitRequests(uri, before, 2);
+        Snapshot after = snapshot(uri);
+        // One cache-miss query each
+        assertThat(after.statements() - before.statements()).isEqualTo(2);
+        assertThat(after.dbTimeCount() - before.dbTimeCount()).isEqualTo(2);
+        assertThat(after.flagged() - before.flagged()).isEqualTo(2);
+        assertThat(meterRegistry.find("http.server.requests.statements").tag("uri", uri).summaries()).hasSize(1);
+    }
+
+    @Test
+    void asyncReadsCountTheStatementsRunOnTheReadExecutor() throws Exception {
+        String uri = "/api/v1/async/products/{id}";
+        Snapshot before = snapshot(uri);
+
+        get("/api/v1/async/products/" + createProduct(10));
+
+        awaitRequests(uri, before, 1);
+        assertThat(snapshot(uri).statements() - before.statements()).isEqualTo(1);
+    }
+
+    @Test
+    void streamingExportsCountTheStatementsRunWhileStreaming() throws Exception {
+        String uri = "/api/v1/products/export";
+        createProduct(10);
+        Snapshot before = snapshot(uri);
+
+        get(uri + "?format=ndjson");
+
+        awaitRequests(uri, before, 1);
+        assertThat(snapshot(uri).statements() - before.statements()).isPositive();
+    }
+
+    private void get(String path) throws Exception {
+        HttpResponse<String> response = client.send(
+                HttpRequest.newBuilder(URI.create("http://localhost:" + port + path)).build(),
+                HttpResponse.BodyHandlers.ofString());
+        assertThat(response.statusCode()).isEqualTo(200);
+    }
+
+    // Async requests are reported by a container listener once the response is complete
+    private void awaitRequests(String uri, Snapshot before, long requests) {
+        await().atMost(Duration.ofSeconds(5))
+                .until(() -> snapshot(uri).requests() - before.requests() == requests);
+    }
+
+    private Snapshot snapshot(String uri) {
+        DistributionSummary statements = meterRegistry.find("http.server.requests.statements")
+                .tags("method", "GET", "uri", uri).summary();
+        Timer dbTime = meterRegistry.find("http.server.requests.db.time")
+                .tags("method", "GET", "uri", uri).timer();
+        Counter flagged = meterRegistry.find("http.server.requests.flagged")
+                .tags("method", "GET", "uri", uri, "reason", "statements").counter();
+        return new Snapshot(
+                statements != null ? statements.count() : 0,
+                statements != null ? (long) statements.totalAmount() : 0,
+                dbTime != null ? dbTime.count() : 0,
+                flagged != null ? (long) flagged.count() : 0);
+    }
+
+    private record Snapshot(long requests, long statements, long dbTimeCount, long flagged) {
+    }
+}
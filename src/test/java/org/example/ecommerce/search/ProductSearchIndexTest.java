@@ -0,0 +1,66 @@
+package org.example.ecommerce.search;
+
+import org.example.ecommerce.IntegrationTest;
+import org.example.ecommerce.dto.CreateProductRequest;
+import org.example.ecommerce.dto.PagedResponse;
+import org.example.ecommerce.dto.ProductDTO;
+import org.example.ecommerce.dto.ProductSearchCriteria;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.data.domain.Sort;
+
+import java.math.BigDecimal;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class ProductSearchIndexTest extends IntegrationTest {
+
+    @Autowired
+    private ProductSearchIndex searchIndex;
+
+    @Test
+    void blankCategoryDoesNotFilter() {
+        Long id = productService.createProduct(new CreateProductRequest(
+                "Zanzibar lamp", "Brass table lamp", BigDecimal.TEN, 5, "lighting", null)).getId();
+
+        ProductSearchCriteria criteria = new ProductSearchCriteria();
+        criteria.setName("zanzibar");
+        // Like the database path, a blank category means no category filter
+        criteria.setCategory("");
+        assertThat(searchIndex.search(criteria, 0, 10).getIds()).containsExactly(id);
+
+        criteria.setCategory("garden");
+        assertThat(searchIndex.search(criteria, 0, 10).getIds()).isEmpty();
+    }
+
+    @Test
+    void sortedSearchFindsTheSameProductsAsTheIndex() {
+        Long inName = create("Qwyx lamp", "Brass", "lighting");
+        Long inDescription = create("Reading chair", "Pairs with the qwyx lamp", "furniture");
+        Long acrossFields = create("Desk shade", "Fits any lamp", "qwyxware");
+        create("Qwyx chair", "Oak", "furniture");
+        create("Floor lamp", "Steel", "lighting");
+
+        ProductSearchCriteria criteria = new ProductSearchCriteria();
+        criteria.setName("QWYX  lamp");
+        assertThat(searchIndex.isReady()).isTrue();
+
+        // Unsorted searches are ranked by the index, sorted ones run on the database
+        PagedResponse<ProductDTO> ranked = productService.searchProducts(criteria, 0, 20, Sort.unsorted());
+        PagedResponse<ProductDTO> sorted = productService.searchProducts(criteria, 0, 20, Sort.by("price"));
+
+        assertThat(ids(ranked)).containsExactlyInAnyOrder(inName, inDescription, acrossFields);
+        assertThat(ids(sorted)).containsExactlyInAnyOrderElementsOf(ids(ranked));
+        assertThat(sorted.getTotalElements()).isEqualTo(ranked.getTotalElements());
+    }
+
+    private Long create(String name, String description, String category) {
+        return productService.createProduct(new CreateProductRequest(
+                name, description, BigDecimal.TEN, 5, category, null)).getId();
+    }
+
+    private static List<Long> ids(PagedResponse<ProductDTO> page) {
+        return page.getContent().stream().map(ProductDTO::getId).toList();
+    }
+}
@@ -0,0 +1,119 @@
+package org.example.ecommerce.service;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.persistence.EntityManager;
+import org.example.ecommerce.IntegrationTest;
+import org.example.ecommerce.dto.CreateOrderRequest;
+import org.example.ecommerce.dto.OrderDTO;
+import org.example.ecommerce.entity.IdempotencyRecord;
+import org.example.ecommerce.repository.IdempotencyRecordRepository;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class IdempotentOrderServiceTest extends IntegrationTest {
+
+    @Autowired
+    private IdempotentOrderService idempotentOrderService;
+
+    @Autowired
+    private OrderService orderService;
+
+    @Autowired
+    private IdempotencyRecordRepository idempotencyRecordRepository;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Autowired
+    private EntityManager entityManager;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @Test
+    void concurrentDuplicatesCreateOneOrder() throws Exception {
+        Long userId = createUser();
+        CreateOrderRequest request = orderRequest(userId, Map.of(createProduct(100), 1));
+        ExecutorService pool = Executors.newFixedThreadPool(8);
+        List<Callable<IdempotentOrderService.Result>> attempts = new ArrayList<>();
+        for (int i = 0; i < 8; i++) {
+            attempts.add(() -> idempotentOrderService.createOrder("duplicate-" + userId, request));
+        }
+
+        List<IdempotentOrderService.Result> results = new ArrayList<>();
+        try {
+            for (Future<IdempotentOrderService.Result> result : pool.invokeAll(attempts)) {
+                results.add(result.get());
+            }
+        } finally {
+            pool.shutdown();
+        }
+
+        assertThat(results).extracting(result -> result.order().getId())
+                .containsOnly(results.get(0).order().getId());
+        assertThat(results).filteredOn(result -> !result.replayed()).hasSize(1);
+        assertThat(orderService.getUserOrders(userId, 0, 10).getTotalElements()).isEqualTo(1);
+    }
+
+    @Test
+    void keyCommittedByAnotherNodeDuringTheOrderIsReplayed() throws Exception {
+        Long userId = createUser();
+        CreateOrderRequest request = orderRequest(userId, Map.of(createProduct(100), 1));
+        String key = "other-node-" + userId;
+        // A second instance has its own in-memory keys, like another node
+        IdempotentOrderService otherNode = new IdempotentOrderService(orderService, idempotencyRecordRepository,
+                objectMapper, entityManager, transactionManager,
+                1000, Duration.ofMinutes(10), Duration.ofHours(24), Duration.ofSeconds(30));
+        OrderDTO winner = orderService.createOrder(request);
+
+        // This node writes the key but has not committed when the other node looks it up,
+        // so the other node's insert of the same key fails on the primary key
+        CountDownLatch keyWritten = new CountDownLatch(1);
+        CompletableFuture<IdempotentOrderService.Result> raced = new CompletableFuture<>();
+        Thread other = new Thread(() -> {
+            try {
+                keyWritten.await();
+                raced.complete(otherNode.createOrder(key, request));
+            } catch (Throwable e) {
+                raced.completeExceptionally(e);
+            }
+        });
+        other.start();
+        new TransactionTemplate(transactionManager).executeWithoutResult(status -> {
+            idempotencyRecordRepository.saveAndFlush(IdempotencyRecord.builder()
+                    .key(key)
+                    .requestHash(IdempotentOrderService.fingerprint(objectMapper, request))
+                    .orderId(winner.getId())
+                    .createdAt(LocalDateTime.now())
+                    .build());
+            keyWritten.countDown();
+            try {
+                Thread.sleep(300);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        });
+
+        IdempotentOrderService.Result result = raced.get(10, TimeUnit.SECONDS);
+        assertThat(result.replayed()).isTrue();
+        assertThat(result.order().getId()).isEqualTo(winner.getId());
+        assertThat(orderService.getUserOrders(userId, 0, 10).getTotalElements()).isEqualTo(1);
+    }
+}
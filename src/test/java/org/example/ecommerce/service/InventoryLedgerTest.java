@@ -0,0 +1,150 @@
+package org.example.ecommerce.service;
+
+import org.example.ecommerce.IntegrationTest;
+import org.example.ecommerce.dto.CreateProductRequest;
+import org.example.ecommerce.dto.ProductDTO;
+import org.example.ecommerce.exception.BusinessException;
+import org.example.ecommerce.repository.ProductRepository;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.test.context.TestPropertySource;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+// The scheduled flush is pushed out so the test decides when stock is written behind
+@TestPropertySource(properties = {
+        "app.inventory.in-memory.enabled=true",
+        "app.inventory.in-memory.flush-interval-ms=3600000"
+})
+class InventoryLedgerTest extends IntegrationTest {
+    private static final int STOCK = 20;
+    private static final int ORDERS = 60;
+    private static final int THREADS = 8;
+
+    @Autowired
+    private OrderService orderService;
+
+    @Autowired
+    private InventoryLedger inventoryLedger;
+
+    @Autowired
+    private ProductRepository productRepository;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @Test
+    void flushEvictsTheCachedProducts() {
+        Long userId = createUser();
+        Long productId = createProduct(10);
+        orderService.createOrder(orderRequest(userId, Map.of(productId, 3)));
+
+        // Cached while the reservation is still only journaled
+        ProductDTO beforeFlush = productService.getProduct(productId);
+        assertThat(beforeFlush.getStock()).isEqualTo(10);
+
+        inventoryLedger.flush();
+
+        ProductDTO afterFlush = productService.getProduct(productId);
+        assertThat(afterFlush.getStock()).isEqualTo(7);
+        assertThat(afterFlush.getVersion()).isGreaterThan(beforeFlush.getVersion());
+    }
+
+    @Test
+    void concurrentOrdersNeverTakeMoreThanTheStock() throws Exception {
+        Long userId = createUser();
+        Long productId = createProduct(STOCK);
+        AtomicInteger accepted = new AtomicInteger();
+        AtomicInteger rejected = new AtomicInteger();
+        CountDownLatch start = new CountDownLatch(1);
+        ExecutorService executor = Executors.newFixedThreadPool(THREADS);
+
+        List<Future<?>> results = new ArrayList<>(ORDERS);
+        for (int i = 0; i < ORDERS; i++) {
+            results.add(executor.submit(() -> {
+                start.await();
+                try {
+                    orderService.createOrder(orderRequest(userId, Map.of(productId, 1)));
+                    accepted.incrementAndGet();
+                } catch (BusinessException e) {
+                    rejected.incrementAndGet();
+                }
+                return null;
+            }));
+        }
+        start.countDown();
+        for (Future<?> result : results) {
+            result.get();
+        }
+        executor.shutdown();
+        inventoryLedger.flush();
+
+        assertThat(accepted.get()).isEqualTo(STOCK);
+        assertThat(rejected.get()).isEqualTo(ORDERS - STOCK);
+        assertThat(stock(productId)).isZero();
+    }
+
+    @Test
+    void rolledBackReservationsAreHandedBack() {
+        Long userId = createUser();
+        Long productId = createProduct(5);
+
+        new TransactionTemplate(transactionManager).executeWithoutResult(status -> {
+            inventoryLedger.reserve(new TreeMap<>(Map.of(productId, 5)));
+            status.setRollbackOnly();
+        });
+
+        orderService.createOrder(orderRequest(userId, Map.of(productId, 5)));
+        assertThatThrownBy(() -> orderService.createOrder(orderRequest(userId, Map.of(productId, 1))))
+                .isInstanceOf(BusinessException.class);
+    }
+
+    @Test
+    void reconcileReplaysItemsLeftUnapplied() {
+        Long userId = createUser();
+        Long productId = createProduct(10);
+        orderService.createOrder(orderRequest(userId, Map.of(productId, 4)));
+        // Journaled only, as if the process stopped before the next flush
+        assertThat(stock(productId)).isEqualTo(10);
+
+        inventoryLedger.reconcile();
+
+        assertThat(stock(productId)).isEqualTo(6);
+    }
+
+    @Test
+    void overwrittenStockResyncsTheCounter() {
+        Long userId = createUser();
+        Long productId = createProduct(10);
+        orderService.createOrder(orderRequest(userId, Map.of(productId, 3)));
+        inventoryLedger.flush();
+
+        productService.updateProduct(productId, new CreateProductRequest(
+                "Restocked", "Stock counted again", BigDecimal.TEN, 5, "category", null));
+
+        // The counter still held 7 before the update
+        assertThatThrownBy(() -> orderService.createOrder(orderRequest(userId, Map.of(productId, 6))))
+                .isInstanceOf(BusinessException.class);
+        orderService.createOrder(orderRequest(userId, Map.of(productId, 5)));
+        inventoryLedger.flush();
+        assertThat(stock(productId)).isZero();
+    }
+
+    private int stock(Long productId) {
+        return productRepository.findById(productId).orElseThrow().getStock();
+    }
+}
@@ -0,0 +1,51 @@
+package org.example.ecommerce.service;
+
+import org.example.ecommerce.IntegrationTest;
+import org.example.ecommerce.dto.CursorPage;
+import org.example.ecommerce.dto.ProductDTO;
+import org.example.ecommerce.exception.BusinessException;
+import org.junit.jupiter.api.Test;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class KeysetPagingTest extends IntegrationTest {
+
+    @Test
+    void scrollingVisitsEveryProductOnceInSortOrder() {
+        for (int i = 0; i < 25; i++) {
+            createProduct(10, BigDecimal.valueOf(i % 5 + 1), "keyset");
+        }
+
+        List<ProductDTO> seen = new ArrayList<>();
+        String cursor = null;
+        do {
+            CursorPage<ProductDTO> page = productService.scrollProducts(cursor, 7, "price", "asc");
+            seen.addAll(page.getContent());
+            cursor = page.getNextCursor();
+        } while (cursor != null);
+
+        assertThat(new HashSet<>(seen.stream().map(ProductDTO::getId).toList())).hasSize(seen.size());
+        assertThat(seen).isSortedAccordingTo((a, b) -> a.getPrice().compareTo(b.getPrice()) != 0
+                ? a.getPrice().compareTo(b.getPrice())
+                : a.getId().compareTo(b.getId()));
+    }
+
+    @Test
+    void cursorIsRejectedForAnotherSort() {
+        createProduct(10);
+        createProduct(10);
+        String cursor = productService.scrollProducts(null, 1, "price", "asc").getNextCursor();
+
+        assertThatThrownBy(() -> productService.scrollProducts(cursor, 1, "name", "asc"))
+                .isInstanceOf(BusinessException.class)
+                .hasMessageContaining("issued for sort price:ASC");
+        assertThatThrownBy(() -> productService.scrollProducts(cursor, 1, "price", "desc"))
+                .isInstanceOf(BusinessException.class);
+    }
+}
@@ -0,0 +1,93 @@
+package org.example.ecommerce.service;
+
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.example.ecommerce.IntegrationTest;
+import org.example.ecommerce.cache.ProductCache;
+import org.example.ecommerce.exception.BusinessException;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class MetricsTest extends IntegrationTest {
+    private static final List<String> PHASES = List.of("user_lookup", "stock_check", "persist", "mapping");
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @Autowired
+    private OrderService orderService;
+
+    @Test
+    void placingAnOrderTimesEachPhaseOnce() {
+        Long userId = createUser();
+        Long productId = createProduct(10);
+        Map<String, Long> before = phaseCounts();
+
+        orderService.createOrder(orderRequest(userId, Map.of(productId, 1)));
+
+        Map<String, Long> after = phaseCounts();
+        assertThat(PHASES).allSatisfy(phase -> assertThat(after.get(phase) - before.get(phase)).isEqualTo(1));
+        assertThat(meterRegistry.get("orders.create.phase").tag("phase", "persist").timer()
+                .totalTime(TimeUnit.NANOSECONDS)).isPositive();
+    }
+
+    @Test
+    void refusedReservationsAreCounted() {
+        Long userId = createUser();
+        Long productId = createProduct(1);
+        double before = rejections();
+
+        assertThatThrownBy(() -> orderService.createOrder(orderRequest(userId, Map.of(productId, 2))))
+                .isInstanceOf(BusinessException.class);
+        orderService.createOrder(orderRequest(userId, Map.of(productId, 1)));
+
+        assertThat(rejections() - before).isEqualTo(1);
+    }
+
+    @Test
+    void productCacheMissesAreRecordedAsLoads() {
+        Long productId = createProduct(10);
+        double loadsBefore = cacheLoads();
+
+        productService.getProduct(productId);
+        productService.getProduct(productId);
+
+        assertThat(cacheLoads() - loadsBefore).isEqualTo(1);
+    }
+
+    @Test
+    void connectionAcquisitionIsTimed() {
+        Timer acquire = meterRegistry.get("hikaricp.connections.acquire").timer();
+        long before = acquire.count();
+
+        productService.getProduct(createProduct(10));
+
+        assertThat(acquire.count()).isGreaterThan(before);
+    }
+
+    private Map<String, Long> phaseCounts() {
+        return PHASES.stream().collect(Collectors.toMap(phase -> phase,
+                phase -> meterRegistry.get("orders.create.phase").tag("phase", phase).timer().count()));
+    }
+
+    private double rejections() {
+        return meterRegistry.get("orders.stock.rejections").tag("mode", "direct").counter().count();
+    }
+
+    private double cacheLoads() {
+        FunctionCounter loads = meterRegistry.get("cache.load")
+                .tag("cache", ProductCache.PRODUCTS)
+                .tag("result", "success")
+                .functionCounter();
+        return loads.count();
+    }
+}
@@ -0,0 +1,100 @@
+package org.example.ecommerce.service;
+
+import org.example.ecommerce.IntegrationTest;
+import org.example.ecommerce.dto.CreateOrderRequest;
+import org.example.ecommerce.dto.OrderIntakeDTO;
+import org.example.ecommerce.entity.IntakeStatus;
+import org.example.ecommerce.exception.ConflictException;
+import org.example.ecommerce.repository.OrderIntakeRepository;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.test.context.TestPropertySource;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+// Polling is pushed out so the test decides when the worker runs
+@TestPropertySource(properties = {
+        "app.orders.async-intake.enabled=true",
+        "app.orders.async-intake.batch-size=2",
+        "app.orders.async-intake.poll-interval-ms=3600000"
+})
+class OrderIntakeTest extends IntegrationTest {
+
+    @Autowired
+    private OrderIntakeService orderIntakeService;
+
+    @Autowired
+    private OrderIntakeWorker orderIntakeWorker;
+
+    @Autowired
+    private OrderIntakeRepository orderIntakeRepository;
+
+    @Test
+    void retryWithTheSameKeyGetsTheFirstEntry() {
+        CreateOrderRequest request = orderRequest(createUser(), Map.of(createProduct(10), 1));
+
+        OrderIntakeService.Submission first = orderIntakeService.submit("intake-retry", request);
+        OrderIntakeService.Submission retry = orderIntakeService.submit("intake-retry", request);
+
+        assertThat(first.replayed()).isFalse();
+        assertThat(retry.replayed()).isTrue();
+        assertThat(retry.intake().getId()).isEqualTo(first.intake().getId());
+        assertThatThrownBy(() -> orderIntakeService.submit("intake-retry",
+                orderRequest(request.getUserId(), Map.of(createProduct(10), 2))))
+                .isInstanceOf(ConflictException.class);
+    }
+
+    @Test
+    void concurrentSubmissionsWithOneKeyQueueOnce() throws Exception {
+        CreateOrderRequest request = orderRequest(createUser(), Map.of(createProduct(10), 1));
+        ExecutorService pool = Executors.newFixedThreadPool(8);
+        List<Callable<OrderIntakeService.Submission>> attempts = new ArrayList<>();
+        for (int i = 0; i < 8; i++) {
+            attempts.add(() -> orderIntakeService.submit("intake-race", request));
+        }
+
+        List<OrderIntakeService.Submission> submissions = new ArrayList<>();
+        try {
+            for (Future<OrderIntakeService.Submission> result : pool.invokeAll(attempts)) {
+                submissions.add(result.get());
+            }
+        } finally {
+            pool.shutdown();
+        }
+
+        assertThat(submissions).extracting(submission -> submission.intake().getId()).containsOnly(
+                submissions.get(0).intake().getId());
+        assertThat(submissions).filteredOn(submission -> !submission.replayed()).hasSize(1);
+    }
+
+    @Test
+    void eachPollHandlesOneBatch() {
+        // Clear whatever earlier tests queued
+        while (!orderIntakeRepository.findClaimable(LocalDateTime.MIN, 1).isEmpty()) {
+            orderIntakeWorker.drain();
+        }
+        Long userId = createUser();
+        Long productId = createProduct(10);
+        List<Long> ids = new ArrayList<>();
+        for (int i = 0; i < 3; i++) {
+            ids.add(orderIntakeService.submit(orderRequest(userId, Map.of(productId, 1))).getId());
+        }
+
+        orderIntakeWorker.drain();
+
+        assertThat(ids).extracting(id -> orderIntakeService.getIntake(id).getStatus())
+                .containsExactly(IntakeStatus.COMPLETED, IntakeStatus.COMPLETED, IntakeStatus.QUEUED);
+        OrderIntakeDTO completed = orderIntakeService.getIntake(ids.get(0));
+        assertThat(completed.getOrderId()).isNotNull();
+    }
+}
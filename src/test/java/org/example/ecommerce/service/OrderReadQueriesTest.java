@@ -0,0 +1,64 @@
+package org.example.ecommerce.service;
+
+import jakarta.persistence.EntityManagerFactory;
+import org.example.ecommerce.IntegrationTest;
+import org.example.ecommerce.dto.OrderDTO;
+import org.example.ecommerce.dto.PagedResponse;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class OrderReadQueriesTest extends IntegrationTest {
+    private static final int ORDERS = 10;
+    private static final int LINES = 3;
+
+    @Autowired
+    private OrderService orderService;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    private Statistics statistics;
+    private Long userId;
+    private Long orderId;
+
+    @BeforeEach
+    void setUp() {
+        statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        userId = createUser();
+        for (int i = 0; i < ORDERS; i++) {
+            Map<Long, Integer> lines = new LinkedHashMap<>();
+            for (int line = 0; line < LINES; line++) {
+                lines.put(createProduct(100), 1);
+            }
+            orderId = orderService.createOrder(orderRequest(userId, lines)).getId();
+        }
+        statistics.clear();
+    }
+
+    @Test
+    void userOrderPageCostsAConstantNumberOfStatements() {
+        PagedResponse<OrderDTO> page = orderService.getUserOrders(userId, 0, ORDERS);
+
+        assertThat(page.getContent()).hasSize(ORDERS);
+        assertThat(page.getContent()).allSatisfy(order -> assertThat(order.getItems()).hasSize(LINES));
+        // page, count and one fetch of items with their products
+        assertThat(statistics.getPrepareStatementCount()).isEqualTo(3);
+    }
+
+    @Test
+    void singleOrderIsReadInOneStatement() {
+        OrderDTO order = orderService.getOrder(orderId);
+
+        assertThat(order.getItems()).hasSize(LINES);
+        assertThat(order.getItems()).allSatisfy(item -> assertThat(item.getProductName()).isNotNull());
+        assertThat(statistics.getPrepareStatementCount()).isEqualTo(1);
+    }
+}
@@ -0,0 +1,52 @@
+package org.example.ecommerce.service;
+
+import org.example.ecommerce.IntegrationTest;
+import org.example.ecommerce.monitoring.QueryStats;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class OrderServiceBatchLoadingTest extends IntegrationTest {
+
+    @Autowired
+    private OrderService orderService;
+
+    @Test
+    void productsAreLoadedOnceAndStockIsDecreasedInOneBatch() {
+        Long userId = createUser();
+        Map<Long, Integer> basket = basket(40);
+
+        QueryStats stats = QueryStats.measure(() -> orderService.createOrder(orderRequest(userId, basket)));
+
+        // user, products, stock batch, order insert, two item insert batches and id sequences
+        stats.assertStatementsAtMost(10);
+        assertThat(stats.getMostRepeated().getValue()).isLessThanOrEqualTo(3);
+    }
+
+    @Test
+    void statementCountDoesNotGrowWithBasketSize() {
+        Long userId = createUser();
+        Map<Long, Integer> small = basket(2);
+        Map<Long, Integer> large = basket(40);
+
+        long smallStatements = QueryStats.measure(() -> orderService.createOrder(orderRequest(userId, small)))
+                .getStatements();
+        long largeStatements = QueryStats.measure(() -> orderService.createOrder(orderRequest(userId, large)))
+                .getStatements();
+
+        // Only the item insert batches (hibernate.jdbc.batch_size = 20) and sequence blocks may add up
+        assertThat(largeStatements).isLessThanOrEqualTo(smallStatements + 3);
+    }
+
+    private Map<Long, Integer> basket(int lines) {
+        Map<Long, Integer> basket = new LinkedHashMap<>();
+        for (int i = 0; i < lines; i++) {
+            basket.put(createProduct(1000), 1 + i % 3);
+        }
+        return basket;
+    }
+}
@@ -0,0 +1,92 @@
+package org.example.ecommerce.service;
+
+import org.example.ecommerce.IntegrationTest;
+import org.example.ecommerce.dto.BulkStatusUpdateRequest;
+import org.example.ecommerce.dto.BulkStatusUpdateResult;
+import org.example.ecommerce.dto.OrderDTO;
+import org.example.ecommerce.dto.StatusUpdateOutcome;
+import org.example.ecommerce.entity.OrderStatus;
+import org.example.ecommerce.event.OrderSalesChangedEvent;
+import org.example.ecommerce.exception.BusinessException;
+import org.example.ecommerce.stats.SalesDelta;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.test.context.event.ApplicationEvents;
+import org.springframework.test.context.event.RecordApplicationEvents;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.List;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+@RecordApplicationEvents
+class OrderStatusServiceTest extends IntegrationTest {
+    private static final Long MISSING_ID = Long.MAX_VALUE;
+
+    @Autowired
+    private OrderService orderService;
+
+    @Autowired
+    private OrderStatusService orderStatusService;
+
+    @Autowired
+    private ApplicationEvents events;
+
+    private Long userId;
+    private Long productId;
+
+    @BeforeEach
+    void setUp() {
+        userId = createUser();
+        productId = createProduct(100, new BigDecimal("12.50"), "bulk-status");
+    }
+
+    @Test
+    void bulkUpdateReportsEachOrderAndPublishesDeltasOnlyForChangedOnes() {
+        OrderDTO pending = placeOrder();
+        OrderDTO moved = placeOrder();
+        orderService.updateOrderStatus(moved.getId(), OrderStatus.PROCESSING);
+        events.clear();
+
+        BulkStatusUpdateResult result = orderStatusService.updateStatuses(new BulkStatusUpdateRequest(
+                List.of(pending.getId(), moved.getId(), MISSING_ID), OrderStatus.PENDING, OrderStatus.PROCESSING));
+
+        assertThat(result.getUpdated()).isEqualTo(1);
+        assertThat(result.getOutcomes()).containsExactly(
+                new StatusUpdateOutcome(pending.getId(), StatusUpdateOutcome.Result.UPDATED, OrderStatus.PROCESSING),
+                new StatusUpdateOutcome(moved.getId(), StatusUpdateOutcome.Result.STATUS_MISMATCH, OrderStatus.PROCESSING),
+                new StatusUpdateOutcome(MISSING_ID, StatusUpdateOutcome.Result.NOT_FOUND, null));
+        assertThat(orderService.getOrder(pending.getId()).getStatus()).isEqualTo(OrderStatus.PROCESSING);
+
+        LocalDate day = pending.getCreatedAt().toLocalDate();
+        BigDecimal total = new BigDecimal("25.00");
+        assertThat(events.stream(OrderSalesChangedEvent.class)).singleElement()
+                .satisfies(event -> assertThat(event.getDeltas())
+                        .containsExactlyInAnyOrder(
+                                SalesDelta.forOrders(day, OrderStatus.PENDING, -1, total.negate()),
+                                SalesDelta.forOrders(day, OrderStatus.PROCESSING, 1, total),
+                                SalesDelta.forCategory(day, OrderStatus.PENDING, "bulk-status", -1, -2, total.negate()),
+                                SalesDelta.forCategory(day, OrderStatus.PROCESSING, "bulk-status", 1, 2, total)));
+    }
+
+    @Test
+    void singleOrderRejectsTransitionsOutsideTheLifecycle() {
+        OrderDTO order = placeOrder();
+        events.clear();
+
+        assertThatThrownBy(() -> orderService.updateOrderStatus(order.getId(), OrderStatus.DELIVERED))
+                .isInstanceOf(BusinessException.class)
+                .hasMessageContaining("from PENDING to DELIVERED");
+
+        assertThat(orderService.getOrder(order.getId()).getStatus()).isEqualTo(OrderStatus.PENDING);
+        assertThat(events.stream(OrderSalesChangedEvent.class)).isEmpty();
+    }
+
+    private OrderDTO placeOrder() {
+        return orderService.createOrder(orderRequest(userId, Map.of(productId, 2)));
+    }
+}
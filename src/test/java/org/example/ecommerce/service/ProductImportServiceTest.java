@@ -0,0 +1,81 @@
+package org.example.ecommerce.service;
+
+import org.example.ecommerce.IntegrationTest;
+import org.example.ecommerce.dto.CreateProductRequest;
+import org.example.ecommerce.dto.ImportResult;
+import org.example.ecommerce.dto.ImportRowError;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class ProductImportServiceTest extends IntegrationTest {
+
+    @Autowired
+    private ProductImportService importService;
+
+    @Autowired
+    private ProductExportService exportService;
+
+    @Test
+    void exportedCsvImportsAsNewProducts() throws IOException {
+        Long first = createProduct(5);
+        // Quoted on export and split over three lines
+        Long last = productService.createProduct(new CreateProductRequest("Reading lamp",
+                "Warm light,\r\nadjustable arm\nand a \"dimmer\"", BigDecimal.TEN, 7, "lighting", null)).getId();
+        ByteArrayOutputStream exported = new ByteArrayOutputStream();
+        long written = exportService.export(first - 1, CatalogFormat.CSV, exported);
+
+        ImportResult result = importService.importProducts(CatalogFormat.CSV,
+                new ByteArrayInputStream(exported.toByteArray()));
+
+        assertThat(written).isEqualTo(2);
+        assertThat(result.getReceived()).isEqualTo(2);
+        assertThat(result.getImported()).isEqualTo(2);
+        assertThat(result.getErrors()).isEmpty();
+
+        // The imported copies export exactly like the originals, apart from their ids
+        ByteArrayOutputStream reexported = new ByteArrayOutputStream();
+        exportService.export(last, CatalogFormat.CSV, reexported);
+        assertThat(withoutIds(reexported)).isEqualTo(withoutIds(exported));
+    }
+
+    @Test
+    void malformedRowIsReportedByTheLineItStartsOn() throws IOException {
+        String csv = CatalogFormat.CSV_COLUMNS + "\n"
+                + "Desk lamp,\"Two\nlines\",12.50,3,lighting,\n"
+                + "Floor lamp,,forty,1,lighting,\n";
+
+        ImportResult result = importService.importProducts(CatalogFormat.CSV,
+                new ByteArrayInputStream(csv.getBytes(StandardCharsets.UTF_8)));
+
+        assertThat(result.getImported()).isEqualTo(1);
+        assertThat(result.getErrors()).extracting(ImportRowError::getLine).containsExactly(4L);
+    }
+
+    @Test
+    void chunkRejectedByTheDatabaseStoresTheRowsItAccepts() throws IOException {
+        // Passes bean validation but not the 255-character category column
+        String csv = CatalogFormat.CSV_COLUMNS + "\n"
+                + "Desk lamp,,12.50,3,lighting,\n"
+                + "Floor lamp,,40.00,1," + "x".repeat(300) + ",\n";
+
+        ImportResult result = importService.importProducts(CatalogFormat.CSV,
+                new ByteArrayInputStream(csv.getBytes(StandardCharsets.UTF_8)));
+
+        assertThat(result.getImported()).isEqualTo(1);
+        assertThat(result.getFailed()).isEqualTo(1);
+        assertThat(result.getErrors()).extracting(ImportRowError::getLine).containsExactly(3L);
+        assertThat(result.getErrors().get(0).getMessages().get(0)).startsWith("Not stored");
+    }
+
+    private static String withoutIds(ByteArrayOutputStream csv) {
+        return csv.toString(StandardCharsets.UTF_8).replaceAll("(?m)^\\d+,", "");
+    }
+}
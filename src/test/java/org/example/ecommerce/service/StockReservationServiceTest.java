@@ -0,0 +1,81 @@
+package org.example.ecommerce.service;
+
+import org.example.ecommerce.IntegrationTest;
+import org.example.ecommerce.exception.BusinessException;
+import org.example.ecommerce.repository.ProductRepository;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class StockReservationServiceTest extends IntegrationTest {
+    private static final int STOCK = 200;
+    private static final int ORDERS = 2000;
+    private static final int THREADS = 16;
+
+    @Autowired
+    private OrderService orderService;
+
+    @Autowired
+    private ProductRepository productRepository;
+
+    @Test
+    void rejectedLineLeavesEveryProductUntouched() {
+        Long userId = createUser();
+        Long available = createProduct(10);
+        Long scarce = createProduct(1);
+
+        assertThatThrownBy(() -> orderService.createOrder(orderRequest(userId, Map.of(available, 5, scarce, 2))))
+                .isInstanceOf(BusinessException.class);
+
+        assertThat(stock(available)).isEqualTo(10);
+        assertThat(stock(scarce)).isEqualTo(1);
+    }
+
+    @Test
+    void parallelOrdersOnOneProductNeverOversell() throws Exception {
+        Long userId = createUser();
+        Long productId = createProduct(STOCK);
+        AtomicInteger accepted = new AtomicInteger();
+        AtomicInteger rejected = new AtomicInteger();
+        CountDownLatch start = new CountDownLatch(1);
+
+        ExecutorService executor = Executors.newFixedThreadPool(THREADS);
+        List<Future<?>> results = new ArrayList<>(ORDERS);
+        for (int i = 0; i < ORDERS; i++) {
+            results.add(executor.submit(() -> {
+                start.await();
+                try {
+                    orderService.createOrder(orderRequest(userId, Map.of(productId, 1)));
+                    accepted.incrementAndGet();
+                } catch (BusinessException e) {
+                    rejected.incrementAndGet();
+                }
+                return null;
+            }));
+        }
+        start.countDown();
+        for (Future<?> result : results) {
+            result.get();
+        }
+        executor.shutdown();
+
+        assertThat(accepted.get()).isEqualTo(STOCK);
+        assertThat(rejected.get()).isEqualTo(ORDERS - STOCK);
+        assertThat(stock(productId)).isZero();
+    }
+
+    private int stock(Long productId) {
+        return productRepository.findById(productId).orElseThrow().getStock();
+    }
+}
@@ -0,0 +1,146 @@
+package org.example.ecommerce.stats;
+
+import org.example.ecommerce.IntegrationTest;
+import org.example.ecommerce.dto.BulkStatusUpdateRequest;
+import org.example.ecommerce.entity.CategoryDailyStats;
+import org.example.ecommerce.entity.OrderDailyStats;
+import org.example.ecommerce.entity.OrderStatus;
+import org.example.ecommerce.repository.CategoryDailyStatsRepository;
+import org.example.ecommerce.repository.OrderDailyStatsRepository;
+import org.example.ecommerce.service.OrderService;
+import org.example.ecommerce.service.OrderStatusService;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class OrderStatsAggregatorTest extends IntegrationTest {
+    @Autowired
+    private OrderStatsAggregator aggregator;
+
+    @Autowired
+    private OrderService orderService;
+
+    @Autowired
+    private OrderStatusService orderStatusService;
+
+    @Autowired
+    private OrderDailyStatsRepository orderDailyStatsRepository;
+
+    @Autowired
+    private CategoryDailyStatsRepository categoryDailyStatsRepository;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    private Long userId;
+    private Long books;
+    private Long games;
+
+    @BeforeEach
+    void setUp() {
+        // Start from exact tables, whatever earlier tests left pending
+        aggregator.rebuild();
+        userId = createUser();
+        books = createProduct(100, new BigDecimal("7.25"), "stats-books");
+        games = createProduct(100, new BigDecimal("40.00"), "stats-games");
+    }
+
+    @Test
+    void flushedDeltasMatchARecomputeFromTheOrders() {
+        Long first = placeOrder(Map.of(books, 2, games, 1));
+        Long second = placeOrder(Map.of(books, 1));
+        Long third = placeOrder(Map.of(games, 3));
+        placeOrder(Map.of(books, 4, games, 2));
+
+        orderService.updateOrderStatus(first, OrderStatus.PROCESSING);
+        orderService.updateOrderStatus(second, OrderStatus.PROCESSING);
+        orderStatusService.updateStatuses(new BulkStatusUpdateRequest(
+                List.of(first, second, third), OrderStatus.PROCESSING, OrderStatus.SHIPPED));
+        orderService.updateOrderStatus(third, OrderStatus.CANCELLED);
+        orderService.updateOrderStatus(first, OrderStatus.DELIVERED);
+        aggregator.flush();
+
+        assertMatchesRecompute();
+    }
+
+    @Test
+    void deltasCoveredByARebuildAreNotAddedAgain() {
+        Long order = placeOrder(Map.of(books, 3));
+        orderService.updateOrderStatus(order, OrderStatus.PROCESSING);
+
+        aggregator.rebuild();
+        aggregator.flush();
+
+        assertMatchesRecompute();
+    }
+
+    @Test
+    void shutdownFlushesPendingDeltas() {
+        Long order = placeOrder(Map.of(books, 2, games, 1));
+        orderService.updateOrderStatus(order, OrderStatus.PROCESSING);
+
+        aggregator.flushOnShutdown();
+
+        assertMatchesRecompute();
+    }
+
+    @Test
+    void ordersWithoutCreationTimeAreLeftOutOfTheStatistics() {
+        Long order = placeOrder(Map.of(books, 1));
+        LocalDateTime createdAt = jdbcTemplate.queryForObject(
+                "SELECT created_at FROM orders WHERE id = ?", LocalDateTime.class, order);
+        jdbcTemplate.update("UPDATE orders SET created_at = NULL WHERE id = ?", order);
+        try {
+            aggregator.rebuild();
+            orderService.updateOrderStatus(order, OrderStatus.PROCESSING);
+            orderStatusService.updateStatuses(new BulkStatusUpdateRequest(
+                    List.of(order), OrderStatus.PROCESSING, OrderStatus.SHIPPED));
+            placeOrder(Map.of(games, 1));
+            aggregator.flush();
+
+            assertMatchesRecompute();
+        } finally {
+            jdbcTemplate.update("UPDATE orders SET created_at = ? WHERE id = ?", createdAt, order);
+        }
+    }
+
+    private void assertMatchesRecompute() {
+        List<OrderDailyStats> orderStats = orderStats();
+        List<CategoryDailyStats> categoryStats = categoryStats();
+
+        aggregator.rebuild();
+
+        assertThat(orderStats).isEqualTo(orderStats());
+        assertThat(categoryStats).isEqualTo(categoryStats());
+    }
+
+    // Buckets emptied by status changes stay behind as zero rows; a recompute has none
+    private List<OrderDailyStats> orderStats() {
+        return orderDailyStatsRepository.findAll().stream()
+                .filter(stats -> stats.getOrderCount() != 0)
+                .sorted(Comparator.comparing(OrderDailyStats::getDay).thenComparing(OrderDailyStats::getStatus))
+                .toList();
+    }
+
+    private List<CategoryDailyStats> categoryStats() {
+        return categoryDailyStatsRepository.findAll().stream()
+                .filter(stats -> stats.getOrderCount() != 0)
+                .sorted(Comparator.comparing(CategoryDailyStats::getDay)
+                        .thenComparing(CategoryDailyStats::getCategory)
+                        .thenComparing(CategoryDailyStats::getStatus))
+                .toList();
+    }
+
+    private Long placeOrder(Map<Long, Integer> quantities) {
+        return orderService.createOrder(orderRequest(userId, quantities)).getId();
+    }
+}